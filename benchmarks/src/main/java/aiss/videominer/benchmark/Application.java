@@ -0,0 +1,28 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.VideominerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Starts the application without the web server, on a fresh in-memory database of its own.
+ */
+final class Application {
+
+    private Application() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(VideominerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
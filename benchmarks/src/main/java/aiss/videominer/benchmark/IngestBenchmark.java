@@ -0,0 +1,58 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Channel;
+import aiss.videominer.repository.ChannelRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChannelRepository.save of a new channel, cascading to its videos, comments and captions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    @Param({ "1", "10", "50" })
+    public int videos;
+
+    @Param({ "10" })
+    public int commentsPerVideo;
+
+    @Param({ "2" })
+    public int captionsPerVideo;
+
+    private ConfigurableApplicationContext context;
+    private ChannelRepository repository;
+    private SyntheticData data;
+    private long next;
+    private Channel channel;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = Application.start();
+        repository = context.getBean(ChannelRepository.class);
+        data = new SyntheticData(42);
+    }
+
+    // Generated outside the measurement, with a new id each time since every save is an insert
+    @Setup(Level.Invocation)
+    public void generate() {
+        channel = data.channel("ingest-" + next++, videos, commentsPerVideo, captionsPerVideo);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Channel save() {
+        return repository.save(channel);
+    }
+}
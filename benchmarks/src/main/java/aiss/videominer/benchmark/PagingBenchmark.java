@@ -0,0 +1,28 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Channel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChannelRepository.findAll of a page of 10, from the first page to the last ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark extends SeededDatabase {
+
+    @Param({ "0", "100", "999" })
+    public int page;
+
+    @Benchmark
+    public Page<Channel> findAll() {
+        return channels.findAll(PageRequest.of(page, 10));
+    }
+}
@@ -0,0 +1,29 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Channel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChannelRepository.findByNameContaining, a LIKE '%term%' that no index can serve, for a term matching about an
+ * eighth of the names and one matching none.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark extends SeededDatabase {
+
+    @Param({ "music", "nonexistent" })
+    public String term;
+
+    @Benchmark
+    public Page<Channel> findByNameContaining() {
+        return channels.findByNameContaining(term, PageRequest.of(0, 10));
+    }
+}
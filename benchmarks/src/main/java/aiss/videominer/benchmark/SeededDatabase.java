@@ -0,0 +1,46 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Channel;
+import aiss.videominer.repository.ChannelRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application with {@value #CHANNELS} synthetic channels of {@value #VIDEOS} videos each, shared by the query
+ * benchmarks.
+ */
+public abstract class SeededDatabase {
+
+    static final int CHANNELS = 10_000;
+    static final int VIDEOS = 2;
+    private static final int BATCH = 500;
+
+    protected ConfigurableApplicationContext context;
+    protected ChannelRepository channels;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = Application.start();
+        channels = context.getBean(ChannelRepository.class);
+        SyntheticData data = new SyntheticData(7);
+        List<Channel> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < CHANNELS; i++) {
+            batch.add(data.channel(String.format("seed-%05d", i), VIDEOS, 1, 1));
+            if (batch.size() == BATCH) {
+                channels.saveAll(batch);
+                batch.clear();
+            }
+        }
+        channels.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,35 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Channel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a whole channel graph, as returned by GET /videominer/channels/{id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int videos;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Channel channel;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        channel = new SyntheticData(42).channel("serialize", videos, 20, 2);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return mapper.writeValueAsBytes(channel);
+    }
+}
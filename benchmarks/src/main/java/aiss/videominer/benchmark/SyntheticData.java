@@ -0,0 +1,71 @@
+package aiss.videominer.benchmark;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible channel graphs: the same seed always generates the same names, texts and dates, so results of
+ * different runs and releases are comparable. Ids are prefixed so that several graphs can share a database.
+ */
+public class SyntheticData {
+
+    private static final String[] WORDS = { "minecraft", "tutorial", "review", "music", "live", "news", "gameplay",
+            "unboxing", "vlog", "cooking", "science", "history", "travel", "podcast", "highlights", "trailer" };
+    private static final String[] LANGUAGES = { "en", "es", "fr", "de", "pt", "it", "ja" };
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private final Random random;
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public Channel channel(String id, int videos, int commentsPerVideo, int captionsPerVideo) {
+        List<Video> list = new ArrayList<>(videos);
+        for (int i = 0; i < videos; i++) {
+            list.add(video(id + "-v" + i, commentsPerVideo, captionsPerVideo));
+        }
+        return new Channel(id, words(2), list, date(), words(20));
+    }
+
+    public Video video(String id, int comments, int captions) {
+        List<Comment> commentList = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            commentList.add(comment(id + "-c" + i));
+        }
+        List<Caption> captionList = new ArrayList<>(captions);
+        for (int i = 0; i < captions; i++) {
+            captionList.add(new Caption(id + "-s" + i, words(2), LANGUAGES[random.nextInt(LANGUAGES.length)]));
+        }
+        return new Video(id, words(4), words(30), date(), commentList, captionList);
+    }
+
+    public Comment comment(String id) {
+        String author = "user" + random.nextInt(10_000);
+        User user = new User(null, author, "https://www.youtube.com/@" + author, "https://yt3.ggpht.com/" + author);
+        return new Comment(id, words(12), date(), user);
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private String date() {
+        return EPOCH.plusMinutes(random.nextInt(5 * 365 * 24 * 60)).toString();
+    }
+}
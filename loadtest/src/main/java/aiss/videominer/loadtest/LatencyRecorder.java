@@ -0,0 +1,50 @@
+package aiss.videominer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one request of the mix, every one of them kept so that the percentiles are exact. Each worker
+ * has its own recorders, merged at the end of the run.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long nanos, boolean error) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.latencies[i], false);
+        }
+        errors += other.errors;
+    }
+
+    /**
+     * Summary of the recorded requests over a run of the given length. Sorts the latencies, so it is only called
+     * once the run is over.
+     */
+    Result summarize(String request, double seconds) {
+        Arrays.sort(latencies, 0, size);
+        return new Result(request, size, errors, size / seconds, percentile(0.5), percentile(0.99), percentile(0.999),
+                size == 0 ? 0 : latencies[size - 1] / 1_000_000.0);
+    }
+
+    // Latency in milliseconds below which the given fraction of the requests completed
+    private double percentile(double fraction) {
+        if (size == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * size) - 1;
+        return latencies[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,218 @@
+package aiss.videominer.loadtest;
+
+import aiss.videominer.VideominerApplication;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application on a random port with a fresh in-memory database, seeds it with channels and replays the
+ * request mix of loadtest.properties from a number of closed-loop workers. Prints and writes the p50, p99 and p999
+ * latency and the throughput of each request, and exits with status 1 if an SLO is not met.
+ */
+public class LoadTest {
+
+    private static final String[] REQUESTS = { "post-channel", "get-channel", "list-videos", "get-comments" };
+
+    private final Properties config;
+    private final List<String> applicationProperties;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicLong nextChannel = new AtomicLong();
+    private final int seeded;
+    private final int[] weights = new int[REQUESTS.length];
+    private final int totalWeight;
+    private String base;
+
+    LoadTest(Properties config, String... applicationProperties) {
+        this.config = config;
+        this.applicationProperties = List.of(applicationProperties);
+        this.seeded = integer("seed.channels");
+        for (int i = 0; i < REQUESTS.length; i++) {
+            weights[i] = Integer.parseInt(config.getProperty("mix." + REQUESTS[i], "0"));
+        }
+        this.totalWeight = Arrays.stream(weights).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTest(configuration()).run() ? 0 : 1);
+    }
+
+    // loadtest.properties, overridden by the system properties
+    static Properties configuration() throws IOException {
+        Properties config = new Properties();
+        try (InputStream defaults = LoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            config.load(defaults);
+        }
+        System.getProperties().forEach((key, value) -> {
+            if (config.containsKey(key) || key.toString().startsWith("slo.") || key.equals("baseline") || key.equals("report")) {
+                config.setProperty(key.toString(), value.toString());
+            }
+        });
+        return config;
+    }
+
+    boolean run() throws Exception {
+        return report(measure());
+    }
+
+    /**
+     * Boots the application with the given extra properties, seeds it and replays the mix, returning the results of
+     * the measured phase.
+     */
+    List<Result> measure() throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        properties.addAll(applicationProperties);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VideominerApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+            base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/videominer";
+            Payloads seed = new Payloads(1, integer("seed.videos-per-channel"), integer("seed.comments-per-video"));
+            for (int i = 0; i < seeded; i++) {
+                if (!send(0, seed)) {
+                    throw new IllegalStateException("Could not seed channel " + i);
+                }
+            }
+            phase(integer("duration.warmup"));
+            long start = System.nanoTime();
+            Map<String, LatencyRecorder> recorders = phase(integer("duration.measured"));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            List<Result> results = new ArrayList<>();
+            for (String request : REQUESTS) {
+                results.add(recorders.get(request).summarize(request, seconds));
+            }
+            return results;
+        }
+    }
+
+    // Runs the mix for the given number of seconds, returning the merged recorders of every worker
+    private Map<String, LatencyRecorder> phase(int seconds) throws Exception {
+        int threads = integer("threads");
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long workerSeed = t;
+            futures.add(workers.submit(() -> {
+                Map<String, LatencyRecorder> recorders = recorders();
+                Payloads payloads = new Payloads(1000 + workerSeed, integer("seed.videos-per-channel"), integer("seed.comments-per-video"));
+                while (System.nanoTime() < end) {
+                    int request = pick();
+                    long started = System.nanoTime();
+                    boolean error = !send(request, payloads);
+                    recorders.get(REQUESTS[request]).record(System.nanoTime() - started, error);
+                }
+                return recorders;
+            }));
+        }
+        Map<String, LatencyRecorder> merged = recorders();
+        for (Future<Map<String, LatencyRecorder>> future : futures) {
+            future.get().forEach((request, recorder) -> merged.get(request).merge(recorder));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    // Sends one request of the mix, returning false if it failed
+    private boolean send(int request, Payloads payloads) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            HttpRequest.Builder builder = switch (REQUESTS[request]) {
+                case "post-channel" -> HttpRequest.newBuilder(URI.create(base + "/channels"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(
+                                mapper.writeValueAsBytes(payloads.channel("load-" + nextChannel.getAndIncrement()))));
+                case "get-channel" -> HttpRequest.newBuilder(URI.create(base + "/channels/" + hotChannel(random)));
+                case "list-videos" -> HttpRequest.newBuilder(URI.create(base + "/videos?page="
+                        + random.nextInt(Math.max(1, seeded * integer("seed.videos-per-channel") / 10)) + "&size=10"));
+                default -> HttpRequest.newBuilder(URI.create(base + "/videos/" + hotChannel(random) + "-v0/comments"));
+            };
+            HttpResponse<Void> response = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // A few channels take most of the reads: the cube of a uniform number is skewed towards 0
+    private String hotChannel(ThreadLocalRandom random) {
+        double u = random.nextDouble();
+        return "load-" + (long) (seeded * u * u * u);
+    }
+
+    private int pick() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private boolean report(List<Result> results) throws IOException {
+        System.out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s%n", "request", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Result r : results) {
+            System.out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", r.request(), r.requests(), r.errors(),
+                    r.throughput(), r.p50(), r.p99(), r.p999(), r.max());
+        }
+        String report = config.getProperty("report");
+        if (report != null) {
+            mapper.writeValue(new File(report), results);
+        }
+        Map<String, Result> baseline = new LinkedHashMap<>();
+        String previous = config.getProperty("baseline");
+        if (previous != null) {
+            for (Result result : mapper.readValue(new File(previous), new TypeReference<List<Result>>() { })) {
+                baseline.put(result.request(), result);
+            }
+        }
+        List<String> violations = new SloGate(config).violations(results, baseline);
+        violations.forEach(violation -> System.out.println("SLO violated: " + violation));
+        return violations.isEmpty();
+    }
+
+    private static Map<String, LatencyRecorder> recorders() {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String request : REQUESTS) {
+            recorders.put(request, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    private int integer(String key) {
+        return Integer.parseInt(config.getProperty(key));
+    }
+}
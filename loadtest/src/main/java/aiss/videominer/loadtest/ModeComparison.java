@@ -0,0 +1,43 @@
+package aiss.videominer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Replays the request mix of loadtest.properties against the application run in each of a few modes (given by
+ * application properties), each on a fresh database, and prints the throughput and tail latency of every mode side
+ * by side. The results of all runs are written to the report. SLOs are not checked, since the load of a comparison
+ * is usually far above that of the load test they are set for.
+ */
+final class ModeComparison {
+
+    private ModeComparison() {
+    }
+
+    static void run(Properties config, int threads, Map<String, String[]> modes, String report) throws Exception {
+        config.setProperty("threads", String.valueOf(threads));
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+            System.out.println("Running " + mode.getKey() + " with " + threads + " workers");
+            results.put(mode.getKey(), new LoadTest(config, mode.getValue()).measure());
+        }
+
+        System.out.printf("%-14s %-9s %10s %8s %10s %9s %9s %9s%n", "request", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        int requests = results.values().iterator().next().size();
+        for (int i = 0; i < requests; i++) {
+            for (Map.Entry<String, List<Result>> mode : results.entrySet()) {
+                Result r = mode.getValue().get(i);
+                System.out.printf("%-14s %-9s %10d %8d %10.1f %9.2f %9.2f %9.2f%n", r.request(), mode.getKey(), r.requests(),
+                        r.errors(), r.throughput(), r.p50(), r.p99(), r.p999());
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(report), results);
+    }
+}
@@ -0,0 +1,63 @@
+package aiss.videominer.loadtest;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Channels posted by the load test, generated from a seed so that every run posts the same graphs.
+ */
+class Payloads {
+
+    private static final String[] WORDS = { "minecraft", "tutorial", "review", "music", "live", "news", "gameplay",
+            "unboxing", "vlog", "cooking", "science", "history", "travel", "podcast", "highlights", "trailer" };
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private final Random random;
+    private final int videos;
+    private final int comments;
+
+    Payloads(long seed, int videos, int comments) {
+        this.random = new Random(seed);
+        this.videos = videos;
+        this.comments = comments;
+    }
+
+    Channel channel(String id) {
+        List<Video> videoList = new ArrayList<>(videos);
+        for (int i = 0; i < videos; i++) {
+            String videoId = id + "-v" + i;
+            List<Comment> commentList = new ArrayList<>(comments);
+            for (int j = 0; j < comments; j++) {
+                String author = "user" + random.nextInt(10_000);
+                commentList.add(new Comment(videoId + "-c" + j, words(12), date(),
+                        new User(null, author, "https://www.youtube.com/@" + author, null)));
+            }
+            List<Caption> captions = List.of(new Caption(videoId + "-s0", words(2), random.nextBoolean() ? "en" : "es"));
+            videoList.add(new Video(videoId, words(4), words(30), date(), commentList, new ArrayList<>(captions)));
+        }
+        return new Channel(id, words(2), videoList, date(), words(20));
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private String date() {
+        return EPOCH.plusMinutes(random.nextInt(5 * 365 * 24 * 60)).toString();
+    }
+}
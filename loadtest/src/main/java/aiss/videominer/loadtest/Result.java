@@ -0,0 +1,12 @@
+package aiss.videominer.loadtest;
+
+/**
+ * Outcome of one request of the mix: throughput in requests per second and latencies in milliseconds.
+ */
+public record Result(String request, long requests, long errors, double throughput, double p50, double p99, double p999,
+              double max) {
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
@@ -0,0 +1,48 @@
+package aiss.videominer.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Checks the results against the SLOs of the configuration (slo.&lt;request&gt;.p99-ms, min-throughput and
+ * max-error-rate) and, if there is one, against the report of a previous run.
+ */
+class SloGate {
+
+    private final Properties config;
+
+    SloGate(Properties config) {
+        this.config = config;
+    }
+
+    /**
+     * Returns a description of every SLO the results break, empty if the run passes.
+     */
+    List<String> violations(List<Result> results, Map<String, Result> baseline) {
+        List<String> violations = new ArrayList<>();
+        double maxRegression = Double.parseDouble(config.getProperty("max-regression", "0.25"));
+        for (Result result : results) {
+            String prefix = "slo." + result.request() + ".";
+            String p99 = config.getProperty(prefix + "p99-ms");
+            if (p99 != null && result.p99() > Double.parseDouble(p99)) {
+                violations.add(String.format("%s: p99 %.2f ms > %s ms", result.request(), result.p99(), p99));
+            }
+            String throughput = config.getProperty(prefix + "min-throughput");
+            if (throughput != null && result.throughput() < Double.parseDouble(throughput)) {
+                violations.add(String.format("%s: throughput %.1f req/s < %s req/s", result.request(), result.throughput(), throughput));
+            }
+            String errorRate = config.getProperty(prefix + "max-error-rate");
+            if (errorRate != null && result.errorRate() > Double.parseDouble(errorRate)) {
+                violations.add(String.format("%s: error rate %.4f > %s", result.request(), result.errorRate(), errorRate));
+            }
+            Result previous = baseline.get(result.request());
+            if (previous != null && previous.p99() > 0 && result.p99() > previous.p99() * (1 + maxRegression)) {
+                violations.add(String.format("%s: p99 %.2f ms regressed more than %.0f%% from %.2f ms", result.request(),
+                        result.p99(), maxRegression * 100, previous.p99()));
+            }
+        }
+        return violations;
+    }
+}
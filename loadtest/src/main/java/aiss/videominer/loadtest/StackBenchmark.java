@@ -0,0 +1,21 @@
+package aiss.videominer.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compares the servlet stack (Spring MVC over JPA) with the reactive one of the reactive profile (WebFlux over
+ * R2DBC) at stack.threads workers, see {@link ModeComparison}.
+ */
+public class StackBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Properties config = LoadTest.configuration();
+        Map<String, String[]> modes = new LinkedHashMap<>();
+        modes.put("servlet", new String[0]);
+        modes.put("reactive", new String[] { "spring.profiles.active=reactive" });
+        ModeComparison.run(config, Integer.parseInt(config.getProperty("stack.threads")), modes,
+                config.getProperty("stack.report"));
+    }
+}
@@ -0,0 +1,21 @@
+package aiss.videominer.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compares the application run on the platform-thread pool of Tomcat and on virtual threads
+ * (spring.threads.virtual.enabled) at thread-mode.threads workers, see {@link ModeComparison}.
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Properties config = LoadTest.configuration();
+        Map<String, String[]> modes = new LinkedHashMap<>();
+        modes.put("platform", new String[] { "spring.threads.virtual.enabled=false" });
+        modes.put("virtual", new String[] { "spring.threads.virtual.enabled=true" });
+        ModeComparison.run(config, Integer.parseInt(config.getProperty("thread-mode.threads")), modes,
+                config.getProperty("thread-mode.report"));
+    }
+}
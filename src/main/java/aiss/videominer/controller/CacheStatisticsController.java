@@ -0,0 +1,66 @@
+package aiss.videominer.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/cache")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class CacheStatisticsController {
+
+    // JSR-107 statistics MBeans registered by Ehcache (enable-statistics="true" in ehcache.xml)
+    private static final String CACHE_STATISTICS_QUERY = "javax.cache:type=CacheStatistics,*";
+    private static final String[] ATTRIBUTES = {
+            "CacheHits", "CacheMisses", "CacheHitPercentage", "CacheGets",
+            "CachePuts", "CacheRemovals", "CacheEvictions", "AverageGetTime"
+    };
+
+    private final MBeanServer mBeanServer;
+
+    public CacheStatisticsController() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    CacheStatisticsController(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las estadísticas de la caché",
+            description = "Obtiene los aciertos, fallos y desalojos de cada región de la caché de segundo nivel y de consultas",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de la caché", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Map<String, Object>> findAll() throws JMException {
+        Map<String, Map<String, Object>> regions = new TreeMap<>();
+        for (ObjectName name : mBeanServer.queryNames(new ObjectName(CACHE_STATISTICS_QUERY), null)) {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            for (String attribute : ATTRIBUTES) {
+                statistics.put(attribute, mBeanServer.getAttribute(name, attribute));
+            }
+            regions.put(name.getKeyProperty("Cache"), statistics);
+        }
+        return regions;
+    }
+}
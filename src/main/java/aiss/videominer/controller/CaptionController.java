@@ -1,15 +1,22 @@
 package aiss.videominer.controller;
 
+import aiss.videominer.exception.InvalidPatchException;
 import aiss.videominer.exception.CaptionNotFoundException;
 import aiss.videominer.model.Caption;
-import aiss.videominer.model.Channel;
 import aiss.videominer.repository.CaptionRepository;
+import aiss.videominer.repository.CaptionSpecifications;
+import aiss.videominer.service.CaptionLanguageIndex;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.WriteBehindService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,16 +27,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("videominer/captions")
 @Tag(name = "Captions", description = "Endpoints para gestionar los captions de los videos")
 public class CaptionController {
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "language");
+
     private final CaptionRepository repository;
+    private final WriteBehindService writeBehind;
+    private final MergePatchService mergePatch;
+    private final CaptionLanguageIndex languages;
 
-    public CaptionController(CaptionRepository repository) {
+    public CaptionController(CaptionRepository repository, WriteBehindService writeBehind, MergePatchService mergePatch,
+                             CaptionLanguageIndex languages) {
         this.repository = repository;
+        this.writeBehind = writeBehind;
+        this.mergePatch = mergePatch;
+        this.languages = languages;
     }
 
     // Get All
@@ -47,12 +66,35 @@ public class CaptionController {
                                  @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int  size,
                                  @Parameter(description = "Nombre del caption")@RequestParam(required = false) String name,
                                  @Parameter(description = "Orden de los captions")@RequestParam(required = false) String order,
-                                 @Parameter(description = "Palabra clave que deben contener los captions", required = false)@RequestParam(required = false) String containing) {
+                                 @Parameter(description = "Palabra clave que deben contener los captions", required = false)@RequestParam(required = false) String containing,
+                                 @Parameter(description = "Idioma de los captions")@RequestParam(required = false) String language,
+                                 @Parameter(description = "ID del video al que pertenecen los captions")@RequestParam(required = false) String video) {
         Pageable paging;
-        Page<Caption> pageComment;
-        paging = PageRequest.of(page, size);
-        pageComment = repository.findAll(paging);
-        return pageComment.getContent();
+        Page<Caption> pageCaption;
+        if (order != null) {
+            Sort sort = order.startsWith("-") ? Sort.by(Sort.Direction.DESC, order.substring(1)) : Sort.by(Sort.Direction.ASC, order);
+            paging = PageRequest.of(page, size, sort);
+        } else
+            paging = PageRequest.of(page, size);
+        Specification<Caption> filters = CaptionSpecifications.matching(name, containing, language, video);
+        if (filters != null)
+            pageCaption = repository.findAll(filters, paging);
+        else
+            pageCaption = repository.findAll(paging);
+        return pageCaption.getContent();
+    }
+
+    @GetMapping("/languages")
+    @Operation(
+            summary = "Obtener los idiomas de los captions",
+            description = "Obtiene cada idioma con captions y el número de videos que tienen captions en él, los más frecuentes primero",
+            tags = { "caption", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "idiomas encontrados", content = { @Content(schema = @Schema(implementation = CaptionLanguageIndex.LanguageFacet.class), mediaType = "application/json") })
+    })
+    public List<CaptionLanguageIndex.LanguageFacet> findLanguages() {
+        return languages.facets();
     }
     //GET One
     @GetMapping("/{id}")
@@ -66,6 +108,10 @@ public class CaptionController {
             @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
     })
     public Caption findOne(@Parameter(description = "ID del caption a obtener")@PathVariable String id) throws CaptionNotFoundException {
+        Optional<Caption> buffered = writeBehind.findCaption(id);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
         Optional<Caption> caption = repository.findById(id);
         if(!caption.isPresent()) {
             throw new CaptionNotFoundException();
@@ -85,6 +131,9 @@ public class CaptionController {
             @ApiResponse(responseCode = "400", description="Solicitud inválida", content = { @Content(schema = @Schema()) })
     })
     public Caption create(@Valid @RequestBody Caption caption) {
+        if (writeBehind.bufferCaption(caption)) {
+            return caption;
+        }
         return repository.save(caption);
     }
     //UPDATE
@@ -101,6 +150,7 @@ public class CaptionController {
             @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
     })
     public void update(@Valid @RequestBody Caption updatedCaption, @Parameter(description = "ID del caption a actualizar")@PathVariable String id) throws CaptionNotFoundException {
+        writeBehind.flushCaption(id);
         if (!repository.existsById(id)) {
             throw new CaptionNotFoundException();
         }
@@ -109,6 +159,25 @@ public class CaptionController {
         repository.save(putCaption);
     }
 
+    //PATCH
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un caption",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "caption", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "caption modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public void patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del caption a modificar")@PathVariable String id) throws CaptionNotFoundException, InvalidPatchException {
+        writeBehind.flushCaption(id);
+        if (!mergePatch.apply(Caption.class, id, patch, PATCHABLE_FIELDS)) {
+            throw new CaptionNotFoundException();
+        }
+    }
     //DELETE
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
@@ -123,6 +192,7 @@ public class CaptionController {
             @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema) })
     })
     public void delete(@Parameter(description = "ID del caption a eliminar")@PathVariable String id) throws CaptionNotFoundException {
+        writeBehind.flushCaption(id);
         boolean exists = repository.existsById(id);
         if (!exists) {
             throw new CaptionNotFoundException();
@@ -0,0 +1,94 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import aiss.videominer.repository.CaptionRepository;
+import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.repository.CommentRepository;
+import aiss.videominer.repository.VideoRepository;
+import aiss.videominer.service.Change;
+import aiss.videominer.service.ChangeLog;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/changes")
+@Tag(name = "Cambios", description = "Endpoints para sincronizar incrementalmente los cambios")
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeLog changeLog;
+    private final ChannelRepository channelRepository;
+    private final VideoRepository videoRepository;
+    private final CommentRepository commentRepository;
+    private final CaptionRepository captionRepository;
+
+    public ChangeController(ChangeLog changeLog, ChannelRepository channelRepository, VideoRepository videoRepository,
+                            CommentRepository commentRepository, CaptionRepository captionRepository) {
+        this.changeLog = changeLog;
+        this.channelRepository = channelRepository;
+        this.videoRepository = videoRepository;
+        this.commentRepository = commentRepository;
+        this.captionRepository = captionRepository;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener los cambios desde una secuencia",
+            description = "Obtiene, en orden, los canales, videos, comentarios y captions creados, actualizados o eliminados después de la secuencia indicada",
+            tags = { "cambios", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cambios encontrados", content = { @Content(schema = @Schema(implementation = Change.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "410", description = "Los cambios ya no están disponibles, es necesaria una sincronización completa", content = { @Content(schema = @Schema()) })
+    })
+    public Map<String, Object> findAll(@Parameter(description = "Última secuencia leída por el consumidor")@RequestParam(defaultValue = "0") long since,
+                                       @Parameter(description = "Número máximo de cambios")@RequestParam(defaultValue = "100") int limit,
+                                       @Parameter(description = "Incluir el estado actual de cada entidad")@RequestParam(defaultValue = "false") boolean payload) throws ChangesExpiredException {
+        List<Change> changes = changeLog.since(since, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        if (payload) {
+            changes = withPayloads(changes);
+        }
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("changes", changes);
+        res.put("lastSeq", changes.isEmpty() ? Math.max(since, 0) : changes.get(changes.size() - 1).seq());
+        res.put("headSeq", changeLog.lastSeq());
+        return res;
+    }
+
+    // One findAllById per resource instead of a lookup per change
+    private List<Change> withPayloads(List<Change> changes) {
+        Map<String, Set<String>> ids = changes.stream()
+                .collect(Collectors.groupingBy(Change::resource, Collectors.mapping(Change::id, Collectors.toSet())));
+        Map<String, Object> current = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : ids.entrySet()) {
+            String resource = entry.getKey();
+            switch (resource) {
+                case "channels" -> channelRepository.findAllById(entry.getValue()).forEach(c -> current.put(resource + "/" + c.getId(), c));
+                case "videos" -> videoRepository.findAllById(entry.getValue()).forEach(v -> current.put(resource + "/" + v.getId(), v));
+                case "comments" -> commentRepository.findAllById(entry.getValue()).forEach(c -> current.put(resource + "/" + c.getId(), c));
+                case "captions" -> captionRepository.findAllById(entry.getValue()).forEach(c -> current.put(resource + "/" + c.getId(), c));
+                default -> { }
+            }
+        }
+        return changes.stream()
+                .map(change -> change.withPayload(current.get(change.resource() + "/" + change.id())))
+                .collect(Collectors.toList());
+    }
+}
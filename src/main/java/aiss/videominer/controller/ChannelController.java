@@ -1,8 +1,16 @@
 package aiss.videominer.controller;
 
+import aiss.videominer.exception.InvalidPatchException;
+import aiss.videominer.exception.ChannelIngestException;
 import aiss.videominer.exception.ChannelNotFoundException;
 import aiss.videominer.model.Channel;
+import aiss.videominer.model.Video;
 import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.service.ChannelIngestService;
+import aiss.videominer.service.FuzzySearchService;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.StatisticsService;
+import aiss.videominer.service.StripedLocks;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -13,6 +21,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,17 +31,42 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("videominer/channels")
 @Tag(name = "Canales", description = "Endpoints para gestionar los canales")
 public class ChannelController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "createdTime");
+
     @Autowired
     ChannelRepository repository;
 
+    @Autowired
+    MergePatchService mergePatch;
+
+    @Autowired
+    FuzzySearchService fuzzySearch;
+
+    // Concurrent writes of the same channel are serialized to avoid racing merges
+    @Autowired
+    StripedLocks locks;
+
+    @Autowired
+    StatisticsService statistics;
+
+    @Autowired
+    ChannelIngestService ingest;
+
     @GetMapping
     @Operation(
             summary = "Obtener todos los canales",
@@ -47,7 +81,12 @@ public class ChannelController {
                                  @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int  size,
                                  @Parameter(description = "Nombre del canal")@RequestParam(required = false) String name,
                                  @Parameter(description = "Orden de clasificación") @RequestParam(required = false) String order,
-                                 @Parameter(description = "Palabra clave que debe contener el nombre del canal")@RequestParam(required = false) String containing) throws ChannelNotFoundException {
+                                 @Parameter(description = "Palabra clave que debe contener el nombre del canal")@RequestParam(required = false) String containing,
+                                 @Parameter(description = "Nombre aproximado del canal, tolerando errores tipográficos")@RequestParam(required = false) String fuzzy,
+                                 @Parameter(description = "Número máximo de ediciones para la búsqueda aproximada")@RequestParam(required = false) Integer distance) throws ChannelNotFoundException {
+        if (fuzzy != null) {
+            return findFuzzy(fuzzy, distance, page, size);
+        }
         Pageable paging;
         Page<Channel> pageChannel;
         Sort sort;
@@ -71,6 +110,18 @@ public class ChannelController {
         if (pageChannel.getContent().isEmpty()) throw new ChannelNotFoundException();
         return pageChannel.getContent();
     }
+
+    // Ranked by distance, so the page is cut from the ranked ids and only those channels are loaded
+    private List<Channel> findFuzzy(String query, Integer distance, int page, int size) throws ChannelNotFoundException {
+        List<String> ids = fuzzySearch.search("channel", query, distance);
+        int from = (int) Math.min((long) page * size, ids.size());
+        List<String> pageIds = ids.subList(from, Math.min(from + size, ids.size()));
+        Map<String, Channel> found = repository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Channel::getId, Function.identity()));
+        List<Channel> res = pageIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+        if (res.isEmpty()) throw new ChannelNotFoundException();
+        return res;
+    }
     //Get
     @GetMapping("/{id}")
     @Operation(
@@ -89,6 +140,26 @@ public class ChannelController {
         }
         return channel.get();
     }
+    @GetMapping("/{id}/stats")
+    @Operation(
+            summary = "Obtener las estadísticas de un canal",
+            description = "Obtiene el número de videos, comentarios y captions (por idioma) del canal y una estimación de sus comentaristas distintos",
+            tags = { "canales", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas del canal", content = { @Content(schema = @Schema(implementation = StatisticsService.Stats.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description="Canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public StatisticsService.Stats findStats(@Parameter(description = "ID del canal")@PathVariable String id) throws ChannelNotFoundException {
+        StatisticsService.Stats stats = statistics.channelStats(id);
+        if (stats == null) {
+            if (!repository.existsById(id)) {
+                throw new ChannelNotFoundException();
+            }
+            stats = new StatisticsService.Stats(0L, 0, 0, Map.of(), 0);
+        }
+        return stats;
+    }
     //CREATE
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
@@ -99,10 +170,13 @@ public class ChannelController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Canal creado exitosamente", content = { @Content(schema = @Schema(implementation = Channel.class), mediaType = "application/json") }),
-            @ApiResponse(responseCode = "400", description="Solicitud inválida", content = { @Content(schema = @Schema()) })
+            @ApiResponse(responseCode = "400", description="Solicitud inválida", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "207", description="Canal creado, pero no se pudieron guardar algunas particiones de sus videos: devuelve el canal guardado y un error por partición", content = { @Content(schema = @Schema(), mediaType = "application/json") })
     })
-    public Channel create(@Valid @RequestBody Channel channel) {
-        return repository.save(channel);
+    public Channel create(@Valid @RequestBody Channel channel) throws ChannelIngestException {
+        // Every video of the body is merged, so they are locked too, against concurrent video writes
+        return locks.withLocks(Map.of("channel", Collections.singletonList(channel.getId()), "video", videoIds(channel)),
+                () -> ingest.ingest(channel));
     }
 
     //Update
@@ -119,12 +193,34 @@ public class ChannelController {
             @ApiResponse(responseCode = "404", description = "canal no encontrado", content = { @Content(schema = @Schema()) })
     })
     public void update(@Valid @RequestBody Channel updatedChannel, @Parameter(description = "ID del canal a actualizar")@PathVariable String id) throws ChannelNotFoundException {
-        if (!repository.existsById(id)) {
+        // The save cascades into the videos of the body, so they are locked too, against concurrent video writes
+        locks.runWithLocks(Map.of("channel", List.of(id), "video", videoIds(updatedChannel)), () -> {
+            if (!repository.existsById(id)) {
+                throw new ChannelNotFoundException();
+            }
+
+            Channel putChannel = new Channel(id, updatedChannel.getName(), updatedChannel.getVideos(), updatedChannel.getDescription(), updatedChannel.getCreatedTime());
+            repository.save(putChannel);
+        });
+    }
+    //PATCH
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un canal",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "canal", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "canal modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public void patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del canal a modificar")@PathVariable String id) throws ChannelNotFoundException, InvalidPatchException {
+        boolean found = locks.withLock("channel", id, () -> mergePatch.apply(Channel.class, id, patch, PATCHABLE_FIELDS));
+        if (!found) {
             throw new ChannelNotFoundException();
         }
-
-        Channel putChannel = new Channel(id, updatedChannel.getName(), updatedChannel.getVideos(), updatedChannel.getDescription(), updatedChannel.getCreatedTime());
-        repository.save(putChannel);
     }
     //DELETE
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -140,9 +236,16 @@ public class ChannelController {
             @ApiResponse(responseCode = "404", description = "canal no encontrado", content = { @Content(schema = @Schema) })
     })
     public void delete(@Parameter(description = "ID del canal a eliminar")@PathVariable String id) throws ChannelNotFoundException {
-        if (!repository.existsById(id)) {
-            throw new ChannelNotFoundException(); // Throwing the exception if the channel does not exist
-        }
-        repository.deleteById(id);
+        locks.runWithLock("channel", id, () -> {
+            if (!repository.existsById(id)) {
+                throw new ChannelNotFoundException(); // Throwing the exception if the channel does not exist
+            }
+            repository.deleteById(id);
+        });
+    }
+
+    private static List<String> videoIds(Channel channel) {
+        return channel.getVideos() == null ? List.of()
+                : channel.getVideos().stream().map(Video::getId).filter(Objects::nonNull).toList();
     }
 }
@@ -0,0 +1,41 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.RequestCoalescer;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/coalescing")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class CoalescingStatisticsController {
+
+    private final RequestCoalescer coalescer;
+
+    public CoalescingStatisticsController(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las estadísticas de agrupación de peticiones",
+            description = "Obtiene cuántas lecturas se ejecutaron, cuántas peticiones idénticas se agruparon y cuántas agotaron su tiempo de espera",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de agrupación", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Long> findAll() {
+        return coalescer.getStatistics();
+    }
+}
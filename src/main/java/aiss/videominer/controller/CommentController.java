@@ -2,6 +2,7 @@ package aiss.videominer.controller;
 
 import aiss.videominer.exception.ChannelNotFoundException;
 import aiss.videominer.exception.CommentForbiddenException;
+import aiss.videominer.exception.InvalidPatchException;
 import aiss.videominer.exception.CommentNotFoundException;
 import aiss.videominer.exception.VideoNotFoundException;
 import aiss.videominer.model.Caption;
@@ -10,14 +11,19 @@ import aiss.videominer.model.Comment;
 import aiss.videominer.model.Video;
 import aiss.videominer.repository.ChannelRepository;
 import aiss.videominer.repository.CommentRepository;
+import aiss.videominer.repository.CommentSpecifications;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.WriteBehindService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,15 +34,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("videominer/comments")
 @Tag(name = "Comentarios", description = "Endpoints para gestionar los comentarios de los videos")
 public class CommentController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("text", "createdOn");
+
     @Autowired
     CommentRepository repository;
+
+    @Autowired
+    MergePatchService mergePatch;
+
+    @Autowired
+    WriteBehindService writeBehind;
     //Get All
     @GetMapping
     @Operation(
@@ -50,13 +67,26 @@ public class CommentController {
     })
     public List<Comment> findAll(@Parameter(description = "Número de página")@RequestParam(defaultValue = "0") int page,
                                  @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int  size,
-                                 @Parameter(description = "Nombre del comentario")@RequestParam(required = false) String name,
+                                 @Parameter(description = "Texto exacto del comentario")@RequestParam(required = false) String name,
                                  @Parameter(description = "Orden de los comentarios")@RequestParam(required = false) String order,
-                                 @Parameter(description = "Palabra clave que debe contener el nombre del comentario")@RequestParam(required = false) String containing) throws CommentNotFoundException {
+                                 @Parameter(description = "Palabra clave que debe contener el texto del comentario")@RequestParam(required = false) String containing,
+                                 @Parameter(description = "Nombre o enlace del autor del comentario")@RequestParam(required = false) String author,
+                                 @Parameter(description = "ID del video al que pertenecen los comentarios")@RequestParam(required = false) String video,
+                                 @Parameter(description = "ID del canal al que pertenecen los comentarios")@RequestParam(required = false) String channel,
+                                 @Parameter(description = "Fecha mínima de creación, incluida (ISO-8601)")@RequestParam(required = false) String createdFrom,
+                                 @Parameter(description = "Fecha máxima de creación, excluida (ISO-8601)")@RequestParam(required = false) String createdTo) throws CommentNotFoundException {
         Pageable paging;
         Page<Comment> pageComment;
-        paging = PageRequest.of(page, size);
-        pageComment = repository.findAll(paging);
+        if (order != null) {
+            Sort sort = order.startsWith("-") ? Sort.by(Sort.Direction.DESC, order.substring(1)) : Sort.by(Sort.Direction.ASC, order);
+            paging = PageRequest.of(page, size, sort);
+        } else
+            paging = PageRequest.of(page, size);
+        Specification<Comment> filters = CommentSpecifications.matching(name, containing, author, video, channel, createdFrom, createdTo);
+        if (filters != null)
+            pageComment = repository.findAll(filters, paging);
+        else
+            pageComment = repository.findAll(paging);
         return pageComment.getContent();
     }
     //Get One
@@ -71,6 +101,10 @@ public class CommentController {
             @ApiResponse(responseCode = "404", description="comentario no encontrado", content = { @Content(schema = @Schema()) })
     })
     public Comment findOne(@Parameter(description = "ID del comentario que se desea obtener")@PathVariable String id) throws CommentNotFoundException, CommentForbiddenException {
+        Optional<Comment> buffered = writeBehind.findComment(id);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
         Optional<Comment> comment = repository.findById(id);
         if(!comment.isPresent()) {
             throw new CommentNotFoundException();
@@ -93,6 +127,9 @@ public class CommentController {
             @ApiResponse(responseCode = "400", description="Solicitud inválida", content = { @Content(schema = @Schema()) })
     })
     public Comment create(@Valid @RequestBody Comment comment) {
+        if (writeBehind.bufferComment(comment)) {
+            return comment;
+        }
         return repository.save(comment);
     }
 
@@ -110,12 +147,32 @@ public class CommentController {
             @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
     })
     public void update(@Valid @RequestBody Comment updatedComment, @Parameter(description = "ID del comentario a actualizar")@PathVariable String id) throws CommentNotFoundException {
+        writeBehind.flushComment(id);
         if (!repository.existsById(id)) {
             throw new CommentNotFoundException();
         }
         Comment updated = new Comment(id, updatedComment.getText(), updatedComment.getCreatedOn(), updatedComment.getAuthor());
         repository.save(updated);
     }
+    //PATCH
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un comentario",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "comentario", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "comentario modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public void patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del comentario a modificar")@PathVariable String id) throws CommentNotFoundException, InvalidPatchException {
+        writeBehind.flushComment(id);
+        if (!mergePatch.apply(Comment.class, id, patch, PATCHABLE_FIELDS)) {
+            throw new CommentNotFoundException();
+        }
+    }
     //DELETE
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
@@ -130,6 +187,7 @@ public class CommentController {
             @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema) })
     })
     public void delete(@Parameter(description = "ID del comentario a eliminar")@PathVariable String id) throws CommentNotFoundException {
+        writeBehind.flushComment(id);
         if (!repository.existsById(id)) {
             throw new CommentNotFoundException();
         }
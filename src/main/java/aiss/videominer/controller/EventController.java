@@ -0,0 +1,61 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import aiss.videominer.service.EventStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@Profile("!reactive")
+@Tag(name = "Cambios", description = "Endpoints para sincronizar incrementalmente los cambios")
+public class EventController {
+
+    private final EventStreamService events;
+
+    public EventController(EventStreamService events) {
+        this.events = events;
+    }
+
+    @GetMapping(value = "videominer/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Suscribirse a los cambios",
+            description = "Envía como server-sent events los cambios de canales, videos, comentarios y captions a medida que se confirman, opcionalmente solo los de un canal. El id de cada evento es su secuencia en GET /videominer/changes",
+            tags = { "cambios", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto", content = { @Content(mediaType = "text/event-stream") }),
+            @ApiResponse(responseCode = "410", description = "Los cambios desde Last-Event-ID ya no están disponibles, es necesaria una sincronización completa", content = { @Content(schema = @Schema()) })
+    })
+    public SseEmitter subscribe(@Parameter(description = "Id del canal cuyos cambios se quieren recibir")@RequestParam(required = false) String channel,
+                                @Parameter(description = "Recursos a recibir (channels, videos, comments, captions)")@RequestParam(required = false) Set<String> resources,
+                                @Parameter(description = "Último evento recibido, para reanudar la suscripción")@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                @Parameter(description = "Alternativa a la cabecera Last-Event-ID")@RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) throws ChangesExpiredException {
+        return events.subscribe(channel, resources, lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
+    @GetMapping("videominer/admin/events")
+    @Operation(
+            summary = "Obtener las estadísticas de las suscripciones a eventos",
+            description = "Obtiene los suscriptores conectados y cuántos eventos se enviaron, se descartaron por desbordamiento o provocaron una desconexión",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de eventos", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Object> statistics() {
+        return events.getStatistics();
+    }
+}
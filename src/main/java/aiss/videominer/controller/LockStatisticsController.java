@@ -0,0 +1,41 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.StripedLocks;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/locks")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class LockStatisticsController {
+
+    private final StripedLocks locks;
+
+    public LockStatisticsController(StripedLocks locks) {
+        this.locks = locks;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las estadísticas de los bloqueos de escritura",
+            description = "Obtiene, para canales y videos, cuántas escrituras tuvieron que esperar un bloqueo y cuánto tiempo esperaron",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de los bloqueos", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Map<String, Object>> findAll() {
+        return locks.getStatistics();
+    }
+}
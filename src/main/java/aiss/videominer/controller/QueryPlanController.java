@@ -0,0 +1,50 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.exception.StatementCaptureDisabledException;
+import aiss.videominer.exception.UnsupportedQueryException;
+import aiss.videominer.service.QueryPlanService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/explain")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class QueryPlanController {
+
+    private final QueryPlanService queryPlans;
+
+    public QueryPlanController(QueryPlanService queryPlans) {
+        this.queryPlans = queryPlans;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener el plan de una consulta de repositorio",
+            description = "Ejecuta un método de consulta de un repositorio (p. ej. VideoRepository.findByNameContaining) con los argumentos indicados y devuelve el SQL generado y el plan de H2 de cada sentencia, señalando los recorridos completos de tablas grandes",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Planes de las sentencias", content = { @Content(schema = @Schema(implementation = QueryPlanService.Explanation.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Repositorio, método, argumentos o página no válidos", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "501", description = "Captura de sentencias desactivada (videominer.slow-query.enabled=false)", content = { @Content(schema = @Schema()) })
+    })
+    public QueryPlanService.Explanation explain(@Parameter(description = "Nombre del repositorio, p. ej. VideoRepository")@RequestParam String repository,
+                                                @Parameter(description = "Método de consulta, p. ej. findByNameContaining")@RequestParam String method,
+                                                @Parameter(description = "Argumentos del método, en orden (sin contar la paginación)")@RequestParam(required = false) List<String> args,
+                                                @Parameter(description = "Página, si el método es paginado")@RequestParam(defaultValue = "0") int page,
+                                                @Parameter(description = "Tamaño de la página, si el método es paginado")@RequestParam(defaultValue = "10") int size,
+                                                @Parameter(description = "Ejecutar EXPLAIN ANALYZE, que incluye las filas recorridas")@RequestParam(defaultValue = "false") boolean analyze) throws UnsupportedQueryException, StatementCaptureDisabledException {
+        return queryPlans.explain(repository, method, args == null ? List.of() : args, page, size, analyze);
+    }
+}
@@ -0,0 +1,99 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.SlowQueryLog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/queries")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class QueryStatisticsController {
+
+    private static final int MAX_TOP = 100;
+
+    private final Statistics statistics;
+    private final SlowQueryLog slowQueryLog;
+
+    public QueryStatisticsController(EntityManagerFactory entityManagerFactory, SlowQueryLog slowQueryLog) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las estadísticas de las consultas",
+            description = "Obtiene las estadísticas de Hibernate (consultas, operaciones por entidad, aciertos de caché y flushes) y las sentencias SQL que más tiempo han consumido en total",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de las consultas", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Object> findAll(@Parameter(description = "Número de sentencias más costosas")@RequestParam(defaultValue = "10") int top) {
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        hibernate.put("queryExecutions", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("preparedStatements", statistics.getPrepareStatementCount());
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        hibernate.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        hibernate.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        hibernate.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        hibernate.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        hibernate.put("collectionFetches", statistics.getCollectionFetchCount());
+
+        Map<String, Map<String, Long>> entities = new TreeMap<>();
+        for (String name : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(name);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("loads", entity.getLoadCount());
+            counts.put("fetches", entity.getFetchCount());
+            counts.put("inserts", entity.getInsertCount());
+            counts.put("updates", entity.getUpdateCount());
+            counts.put("deletes", entity.getDeleteCount());
+            counts.put("cacheHits", entity.getCacheHitCount());
+            counts.put("cacheMisses", entity.getCacheMissCount());
+            entities.put(name.substring(name.lastIndexOf('.') + 1), counts);
+        }
+        hibernate.put("entities", entities);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("hibernate", hibernate);
+        res.put("statements", slowQueryLog.top(Math.max(0, Math.min(top, MAX_TOP))));
+        return res;
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping
+    @Operation(
+            summary = "Reiniciar las estadísticas de las consultas",
+            description = "Pone a cero las estadísticas de Hibernate y los totales de las sentencias SQL",
+            tags = { "admin", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Estadísticas reiniciadas", content = { @Content(mediaType = "application/json") })
+    })
+    public void reset() {
+        statistics.clear();
+        slowQueryLog.reset();
+    }
+}
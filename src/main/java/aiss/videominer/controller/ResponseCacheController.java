@@ -0,0 +1,59 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.ResponseCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/response-cache")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class ResponseCacheController {
+
+    private final ResponseCache cache;
+
+    public ResponseCacheController(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las estadísticas de la caché de respuestas",
+            description = "Obtiene el número de entradas, los bytes ocupados, los aciertos, los fallos y los desalojos de la caché de respuestas",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de la caché de respuestas", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Object> findAll() {
+        return cache.getStatistics();
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping
+    @Operation(
+            summary = "Vaciar la caché de respuestas",
+            description = "Elimina todas las respuestas almacenadas en la caché",
+            tags = { "admin", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "caché vaciada correctamente", content = { @Content(schema = @Schema) })
+    })
+    public void delete() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.exception.UnsupportedSuggestionTypeException;
+import aiss.videominer.service.SuggestionService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/suggest")
+@Tag(name = "Sugerencias", description = "Endpoints para autocompletar nombres")
+public class SuggestionController {
+
+    private final SuggestionService suggestions;
+
+    public SuggestionController(SuggestionService suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Autocompletar nombres de canales o videos",
+            description = "Obtiene los canales o videos cuyo nombre empieza por el prefijo indicado (sin distinguir mayúsculas ni acentos), los más comentados primero",
+            tags = { "sugerencias", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Sugerencias encontradas", content = { @Content(schema = @Schema(implementation = SuggestionService.Suggestion.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Tipo no soportado", content = { @Content(schema = @Schema()) })
+    })
+    public List<SuggestionService.Suggestion> suggest(@Parameter(description = "Prefijo del nombre")@RequestParam(defaultValue = "") String prefix,
+                                                      @Parameter(description = "Tipo de las sugerencias (channel o video)")@RequestParam(defaultValue = "channel") String type,
+                                                      @Parameter(description = "Número máximo de sugerencias")@RequestParam(defaultValue = "10") int limit) throws UnsupportedSuggestionTypeException {
+        List<SuggestionService.Suggestion> res = suggestions.suggest(type, prefix, Math.max(1, limit));
+        if (res == null) {
+            throw new UnsupportedSuggestionTypeException();
+        }
+        return res;
+    }
+}
@@ -0,0 +1,57 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.TraceStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/traces")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class TraceController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final TraceStore traces;
+
+    public TraceController(TraceStore traces) {
+        this.traces = traces;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener las peticiones trazadas más lentas",
+            description = "Obtiene las peticiones más lentas de entre las últimas trazadas (una muestra, según management.tracing.sampling.probability) con su árbol de spans: método del controlador, sentencias SQL, cargas perezosas y serialización JSON, y el tiempo total de cada fase",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trazas de las peticiones más lentas", content = { @Content(mediaType = "application/json") })
+    })
+    public List<TraceStore.Trace> findAll(@Parameter(description = "Número de trazas")@RequestParam(defaultValue = "10") int limit) {
+        return traces.slowest(Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping
+    @Operation(
+            summary = "Borrar las trazas",
+            description = "Borra las trazas guardadas",
+            tags = { "admin", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Trazas borradas", content = { @Content(mediaType = "application/json") })
+    })
+    public void clear() {
+        traces.clear();
+    }
+}
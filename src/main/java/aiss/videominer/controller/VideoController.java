@@ -1,6 +1,8 @@
 package aiss.videominer.controller;
 
 import aiss.videominer.exception.ChannelNotFoundException;
+import aiss.videominer.exception.InvalidPatchException;
+import aiss.videominer.exception.UnsupportedWindowException;
 import aiss.videominer.exception.VideoNotFoundException;
 import aiss.videominer.model.Caption;
 import aiss.videominer.model.Channel;
@@ -8,6 +10,11 @@ import aiss.videominer.model.Comment;
 import aiss.videominer.model.Video;
 import aiss.videominer.repository.CommentRepository;
 import aiss.videominer.repository.VideoRepository;
+import aiss.videominer.service.FuzzySearchService;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.StatisticsService;
+import aiss.videominer.service.StripedLocks;
+import aiss.videominer.service.TrendingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties;
@@ -26,18 +33,49 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("videominer/videos")
 @Tag(name = "Videos", description = "Endpoints para gestionar los videos")
 public class VideoController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "releaseTime");
+    private static final int MAX_TRENDING = 500;
+
     @Autowired
     VideoRepository repository;
 
+    @Autowired
+    MergePatchService mergePatch;
+
+    @Autowired
+    FuzzySearchService fuzzySearch;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    // Concurrent writes of the same video are serialized to avoid racing merges
+    @Autowired
+    StripedLocks locks;
+
+    @Autowired
+    StatisticsService statistics;
+
+    @Autowired
+    TrendingService trending;
+
     @GetMapping
     @Operation(
             summary = "Obtener todos los videos",
@@ -52,7 +90,12 @@ public class VideoController {
                                @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int  size,
                                @Parameter(description = "Nombre del video")@RequestParam(required = false) String name,
                                @Parameter(description = "Orden de los videos")@RequestParam(required = false) String order,
-                               @Parameter(description = "Palabra clave que debe contener el nombre del video")@RequestParam(required = false) String containing) throws VideoNotFoundException {
+                               @Parameter(description = "Palabra clave que debe contener el nombre del video")@RequestParam(required = false) String containing,
+                               @Parameter(description = "Nombre aproximado del video, tolerando errores tipográficos")@RequestParam(required = false) String fuzzy,
+                               @Parameter(description = "Número máximo de ediciones para la búsqueda aproximada")@RequestParam(required = false) Integer distance) throws VideoNotFoundException {
+        if (fuzzy != null) {
+            return findFuzzy(fuzzy, distance, page, size);
+        }
         Pageable paging;
         Page<Video> pageVideo;
         Sort sort;
@@ -77,6 +120,33 @@ public class VideoController {
         return pageVideo.getContent();
     }
 
+    // Ranked by distance, so the page is cut from the ranked ids and only those videos are loaded
+    private List<Video> findFuzzy(String query, Integer distance, int page, int size) throws VideoNotFoundException {
+        List<String> ids = fuzzySearch.search("video", query, distance);
+        int from = (int) Math.min((long) page * size, ids.size());
+        List<String> pageIds = ids.subList(from, Math.min(from + size, ids.size()));
+        Map<String, Video> found = repository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+        List<Video> res = pageIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+        if (res.isEmpty()) throw new VideoNotFoundException();
+        return res;
+    }
+
+    @GetMapping("/trending")
+    @Operation(
+            summary = "Obtener los videos en tendencia",
+            description = "Obtiene los videos con más comentarios recibidos en la ventana indicada (1h o 1d), ponderados por su antigüedad",
+            tags = { "video", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "videos en tendencia", content = { @Content(schema = @Schema(implementation = TrendingService.Trend.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Ventana no soportada", content = { @Content(schema = @Schema()) })
+    })
+    public List<TrendingService.Trend> findTrending(@Parameter(description = "Ventana de tiempo")@RequestParam(defaultValue = "1h") String window,
+                                                    @Parameter(description = "Número máximo de videos")@RequestParam(defaultValue = "50") int limit) throws UnsupportedWindowException {
+        return trending.top(window, Math.max(1, Math.min(limit, MAX_TRENDING)));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Obtener un video por su ID",
@@ -107,7 +177,7 @@ public class VideoController {
             @ApiResponse(responseCode = "400", description="Solicitud inválida", content = { @Content(schema = @Schema()) })
     })
     public Video create(@Valid @RequestBody Video video) {
-        return repository.save(video);
+        return locks.withLock("video", video.getId(), () -> repository.save(video));
     }
 
 
@@ -141,6 +211,58 @@ public class VideoController {
         Optional<Video> video = repository.findById(id);
         return video.get().getCaptions();
     }
+
+    @GetMapping("/{id}/stats")
+    @Operation(
+            summary = "Obtener las estadísticas de un video",
+            description = "Obtiene el número de comentarios y captions (por idioma) del video y una estimación de sus comentaristas distintos",
+            tags = { "video", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas del video", content = { @Content(schema = @Schema(implementation = StatisticsService.Stats.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description="video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public StatisticsService.Stats findStats(@Parameter(description = "ID del video")@PathVariable String id) throws VideoNotFoundException {
+        StatisticsService.Stats stats = statistics.videoStats(id);
+        if (stats == null) {
+            if (!repository.existsById(id)) {
+                throw new VideoNotFoundException();
+            }
+            stats = new StatisticsService.Stats(null, 0, 0, Map.of(), 0);
+        }
+        return stats;
+    }
+
+    @PostMapping("/{id}/comments:batch")
+    @Operation(
+            summary = "Añadir comentarios a un video",
+            description = "Añade en una sola transacción los comentarios (y sus autores) a un video existente, omitiendo los comentarios cuyo ID ya existe",
+            tags = { "video", "comentario", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "IDs de los comentarios creados y omitidos", content = { @Content(mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Map<String, List<String>> appendComments(@Valid @RequestBody List<Comment> comments,
+                                                    @Parameter(description = "ID del video al que se añaden los comentarios")@PathVariable String id) throws VideoNotFoundException {
+        return locks.withLock("video", id, () -> {
+            if (!repository.existsById(id)) {
+                throw new VideoNotFoundException();
+            }
+            List<String> created = commentRepository.appendToVideo(id, comments);
+            Set<String> createdIds = new HashSet<>(created);
+            List<String> skipped = comments.stream()
+                    .map(Comment::getId)
+                    .filter(commentId -> !createdIds.contains(commentId))
+                    .distinct()
+                    .collect(Collectors.toList());
+            Map<String, List<String>> res = new HashMap<>();
+            res.put("created", created);
+            res.put("skipped", skipped);
+            return res;
+        });
+    }
     //UPDATE
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PutMapping("/{id}")
@@ -155,11 +277,32 @@ public class VideoController {
             @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
     })
     public void update(@Valid @RequestBody Video updatedVideo, @Parameter(description = "ID del video a actualizar")@PathVariable String id) throws VideoNotFoundException {
-        if (!repository.existsById(id)) {
+        locks.runWithLock("video", id, () -> {
+            if (!repository.existsById(id)) {
+                throw new VideoNotFoundException();
+            }
+            Video newVideo = new Video(id, updatedVideo.getName(), updatedVideo.getDescription(), updatedVideo.getReleaseTime(), updatedVideo.getComments(), updatedVideo.getCaptions());
+            repository.save(newVideo);
+        });
+    }
+    //PATCH
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un video",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "video", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "video modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public void patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del video a modificar")@PathVariable String id) throws VideoNotFoundException, InvalidPatchException {
+        boolean found = locks.withLock("video", id, () -> mergePatch.apply(Video.class, id, patch, PATCHABLE_FIELDS));
+        if (!found) {
             throw new VideoNotFoundException();
         }
-        Video newVideo = new Video(id, updatedVideo.getName(), updatedVideo.getDescription(), updatedVideo.getReleaseTime(), updatedVideo.getComments(), updatedVideo.getCaptions());
-        repository.save(newVideo);
     }
     //DELETE
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -175,9 +318,11 @@ public class VideoController {
             @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema) })
     })
     public void delete(@Parameter(description = "ID del video a eliminar")@PathVariable String id) throws VideoNotFoundException {
-        if (!repository.existsById(id)) {
-            throw new VideoNotFoundException();
-        }
-        repository.deleteById(id);
+        locks.runWithLock("video", id, () -> {
+            if (!repository.existsById(id)) {
+                throw new VideoNotFoundException();
+            }
+            repository.deleteById(id);
+        });
 }
 }
@@ -0,0 +1,58 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.service.WriteBehindService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.context.annotation.Profile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("videominer/admin/write-behind")
+@Tag(name = "Administración", description = "Endpoints de administración y diagnóstico")
+public class WriteBehindController {
+
+    private final WriteBehindService writeBehind;
+
+    public WriteBehindController(WriteBehindService writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener el estado de la escritura diferida",
+            description = "Obtiene, para comentarios y captions, cuántas creaciones están pendientes de escribirse y cuántas fallan, y las que no se pudieron escribir tras videominer.write-behind.max-attempts intentos",
+            tags = { "admin", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estado de la escritura diferida", content = { @Content(mediaType = "application/json") })
+    })
+    public Map<String, Object> findAll() {
+        Map<String, Object> result = new LinkedHashMap<>(writeBehind.getStatistics());
+        result.put("deadComments", writeBehind.deadComments());
+        result.put("deadCaptions", writeBehind.deadCaptions());
+        return result;
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PostMapping("/retry")
+    @Operation(
+            summary = "Reintentar las creaciones fallidas",
+            description = "Vuelve a poner pendientes de escritura los comentarios y captions que no se pudieron escribir",
+            tags = { "admin", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Creaciones pendientes de nuevo", content = { @Content(mediaType = "application/json") })
+    })
+    public void retry() {
+        writeBehind.retryDeadLetters();
+    }
+}
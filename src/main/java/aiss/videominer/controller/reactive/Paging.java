@@ -0,0 +1,45 @@
+package aiss.videominer.controller.reactive;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+final class Paging {
+
+    // Rows completed into graphs together while exporting
+    static final int EXPORT_BATCH = 100;
+
+    private Paging() {
+    }
+
+    // Same as the controllers of the servlet stack: "-field" sorts descending
+    static Pageable of(int page, int size, String order) {
+        if (order == null) {
+            return PageRequest.of(page, size);
+        }
+        return order.startsWith("-")
+                ? PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, order.substring(1)))
+                : PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, order));
+    }
+
+    /**
+     * All the rows, in batches of {@link #EXPORT_BATCH} in id order. Each batch is read by a keyset query of its own
+     * that ends before the batch is completed into graphs, so an export never holds a connection while it waits for
+     * another one from the pool.
+     *
+     * @param after the rows with an id greater than the given one, in the order and size of the page
+     */
+    static <R> Flux<List<R>> batches(BiFunction<String, Pageable, Flux<R>> after, Function<R, String> id) {
+        Pageable batch = PageRequest.of(0, EXPORT_BATCH, Sort.by("id"));
+        return after.apply("", batch).collectList()
+                .expand(rows -> rows.size() < EXPORT_BATCH ? Mono.empty()
+                        : after.apply(id.apply(rows.get(rows.size() - 1)), batch).collectList())
+                .filter(rows -> !rows.isEmpty());
+    }
+}
@@ -0,0 +1,161 @@
+package aiss.videominer.controller.reactive;
+
+import aiss.videominer.exception.CaptionNotFoundException;
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.reactive.CaptionRow;
+import aiss.videominer.repository.reactive.CaptionRowRepository;
+import aiss.videominer.service.ReactiveGraphService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("videominer/captions")
+@Tag(name = "Captions", description = "Endpoints para gestionar los captions de los videos")
+public class ReactiveCaptionController {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "language");
+
+    private final CaptionRowRepository repository;
+    private final ReactiveGraphService graphs;
+
+    public ReactiveCaptionController(CaptionRowRepository repository, ReactiveGraphService graphs) {
+        this.repository = repository;
+        this.graphs = graphs;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener todos los captions",
+            description = "Obtiene una lista paginada de todos los captions, opcionalmente de un idioma o de un video",
+            tags = { "caption", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "captions encontrados", content = { @Content(schema = @Schema(implementation = Caption.class), mediaType = "application/json") })
+    })
+    public Flux<Caption> findAll(@Parameter(description = "Número de página, comenzando desde 0")@RequestParam(defaultValue = "0") int page,
+                                 @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int size,
+                                 @Parameter(description = "Orden de los captions")@RequestParam(required = false) String order,
+                                 @Parameter(description = "Idioma de los captions")@RequestParam(required = false) String language,
+                                 @Parameter(description = "ID del video al que pertenecen los captions")@RequestParam(required = false) String video) {
+        Pageable paging = Paging.of(page, size, order);
+        return (language != null && video != null ? repository.findByLanguageAndVideoId(language, video, paging)
+                : language != null ? repository.findByLanguage(language, paging)
+                : video != null ? repository.findByVideoId(video, paging)
+                : repository.findAllBy(paging))
+                .map(ReactiveGraphService::caption);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar todos los captions",
+            description = "Devuelve todos los captions, uno por línea (NDJSON), a medida que el cliente los consume",
+            tags = { "caption", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "captions exportados", content = { @Content(schema = @Schema(implementation = Caption.class), mediaType = "application/x-ndjson") })
+    })
+    public Flux<Caption> export() {
+        return Paging.batches(repository::findByIdGreaterThan, CaptionRow::id)
+                .flatMapIterable(rows -> rows)
+                .map(ReactiveGraphService::caption);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Obtener un único caption",
+            description = "Obtiene un único caption según su ID",
+            tags = { "caption", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "caption encontrado", content = { @Content(schema = @Schema(implementation = Caption.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Caption> findOne(@Parameter(description = "ID del caption que se desea obtener")@PathVariable String id) {
+        return repository.findById(id)
+                .map(ReactiveGraphService::caption)
+                .switchIfEmpty(Mono.error(new CaptionNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    @Operation(
+            summary = "Crear un nuevo caption",
+            description = "Crea un nuevo caption utilizando la información proporcionada en el cuerpo de la solicitud",
+            tags = { "caption", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "caption creado exitosamente", content = { @Content(schema = @Schema(implementation = Caption.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Caption> create(@Valid @RequestBody Caption caption) {
+        return graphs.createCaption(caption);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{id}")
+    @Operation(
+            summary = "Actualizar un caption",
+            description = "Actualiza un caption existente según su ID",
+            tags = { "caption", "put" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "caption actualizado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> update(@Valid @RequestBody Caption updatedCaption, @Parameter(description = "ID del caption a actualizar")@PathVariable String id) {
+        return graphs.updateCaption(id, updatedCaption)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new CaptionNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un caption",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "caption", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "caption modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del caption a modificar")@PathVariable String id) {
+        return graphs.patch(Caption.class, CaptionRow.class, id, patch, PATCHABLE_FIELDS)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new CaptionNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Eliminar un caption",
+            description = "Elimina un caption existente especificando su ID",
+            tags = { "caption", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "caption eliminado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "caption no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> delete(@Parameter(description = "ID del caption a eliminar")@PathVariable String id) {
+        return graphs.deleteCaption(id)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(new CaptionNotFoundException()));
+    }
+}
@@ -0,0 +1,162 @@
+package aiss.videominer.controller.reactive;
+
+import aiss.videominer.exception.ChannelNotFoundException;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.reactive.ChannelRow;
+import aiss.videominer.repository.reactive.ChannelRowRepository;
+import aiss.videominer.service.ReactiveGraphService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("videominer/channels")
+@Tag(name = "Canales", description = "Endpoints para gestionar los canales")
+public class ReactiveChannelController {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "createdTime");
+
+    private final ChannelRowRepository repository;
+    private final ReactiveGraphService graphs;
+
+    public ReactiveChannelController(ChannelRowRepository repository, ReactiveGraphService graphs) {
+        this.repository = repository;
+        this.graphs = graphs;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener todos los canales",
+            description = "Obtiene una lista paginada de todos los canales disponibles",
+            tags = { "canales", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Canales encontrados", content = { @Content(schema = @Schema(implementation = Channel.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "No se encontraron canales", content = { @Content(schema = @Schema()) })
+    })
+    public Flux<Channel> findAll(@Parameter(description = "Número de página")@RequestParam(defaultValue = "0") int page,
+                                 @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int size,
+                                 @Parameter(description = "Nombre del canal")@RequestParam(required = false) String name,
+                                 @Parameter(description = "Orden de clasificación")@RequestParam(required = false) String order,
+                                 @Parameter(description = "Palabra clave que debe contener el nombre del canal")@RequestParam(required = false) String containing) {
+        Pageable paging = Paging.of(page, size, order);
+        return (name != null ? repository.findByName(name, paging)
+                : containing != null ? repository.findByNameContaining(containing, paging)
+                : repository.findAllBy(paging))
+                .collectList()
+                .flatMapMany(graphs::channels)
+                .switchIfEmpty(Mono.error(new ChannelNotFoundException()));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar todos los canales",
+            description = "Devuelve todos los canales con sus videos, uno por línea (NDJSON), a medida que el cliente los consume",
+            tags = { "canales", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Canales exportados", content = { @Content(schema = @Schema(implementation = Channel.class), mediaType = "application/x-ndjson") })
+    })
+    public Flux<Channel> export() {
+        return Paging.batches(repository::findByIdGreaterThan, ChannelRow::id).concatMap(graphs::channels);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Obtener un canal por su ID",
+            description = "Obtiene un canal especificando su ID",
+            tags = { "canales", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Canal encontrado", content = { @Content(schema = @Schema(implementation = Channel.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "Canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Channel> findOne(@Parameter(description = "ID del canal que se desea obtener")@PathVariable String id) {
+        return repository.findById(id)
+                .flatMap(row -> graphs.channels(List.of(row)).next())
+                .switchIfEmpty(Mono.error(new ChannelNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    @Operation(
+            summary = "Crear un nuevo canal",
+            description = "Crea un nuevo canal utilizando la información proporcionada en el cuerpo de la solicitud",
+            tags = { "canal", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Canal creado exitosamente", content = { @Content(schema = @Schema(implementation = Channel.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Channel> create(@Valid @RequestBody Channel channel) {
+        return graphs.create(channel);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{id}")
+    @Operation(
+            summary = "Actualizar un canal",
+            description = "Actualiza un canal existente especificando su ID y proporcionando los datos actualizados en el cuerpo de la solicitud",
+            tags = { "canal", "put" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "canal actualizado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> update(@Valid @RequestBody Channel updatedChannel, @Parameter(description = "ID del canal a actualizar")@PathVariable String id) {
+        return graphs.updateChannel(id, updatedChannel)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new ChannelNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un canal",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "canal", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "canal modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del canal a modificar")@PathVariable String id) {
+        return graphs.patch(Channel.class, ChannelRow.class, id, patch, PATCHABLE_FIELDS)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new ChannelNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Eliminar un canal",
+            description = "Elimina un canal existente especificando su ID",
+            tags = { "canal", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Canal eliminado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "Canal no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> delete(@Parameter(description = "ID del canal a eliminar")@PathVariable String id) {
+        return graphs.deleteChannel(id)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(new ChannelNotFoundException()));
+    }
+}
@@ -0,0 +1,157 @@
+package aiss.videominer.controller.reactive;
+
+import aiss.videominer.exception.CommentNotFoundException;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.reactive.CommentRow;
+import aiss.videominer.repository.reactive.CommentRowRepository;
+import aiss.videominer.service.ReactiveGraphService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("videominer/comments")
+@Tag(name = "Comentarios", description = "Endpoints para gestionar los comentarios de los videos")
+public class ReactiveCommentController {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("text", "createdOn");
+
+    private final CommentRowRepository repository;
+    private final ReactiveGraphService graphs;
+
+    public ReactiveCommentController(CommentRowRepository repository, ReactiveGraphService graphs) {
+        this.repository = repository;
+        this.graphs = graphs;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener todos los comentarios",
+            description = "Obtiene una lista paginada de todos los comentarios, opcionalmente de un video",
+            tags = { "comentario", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "comentarios encontrados", content = { @Content(schema = @Schema(implementation = Comment.class), mediaType = "application/json") })
+    })
+    public Flux<Comment> findAll(@Parameter(description = "Número de página")@RequestParam(defaultValue = "0") int page,
+                                 @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int size,
+                                 @Parameter(description = "Orden de los comentarios")@RequestParam(required = false) String order,
+                                 @Parameter(description = "ID del video al que pertenecen los comentarios")@RequestParam(required = false) String video) {
+        Pageable paging = Paging.of(page, size, order);
+        return (video != null ? repository.findByVideoId(video, paging) : repository.findAllBy(paging))
+                .collectList()
+                .flatMapMany(graphs::comments);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar todos los comentarios",
+            description = "Devuelve todos los comentarios con sus autores, uno por línea (NDJSON), a medida que el cliente los consume",
+            tags = { "comentario", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "comentarios exportados", content = { @Content(schema = @Schema(implementation = Comment.class), mediaType = "application/x-ndjson") })
+    })
+    public Flux<Comment> export() {
+        return Paging.batches(repository::findByIdGreaterThan, CommentRow::id).concatMap(graphs::comments);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Obtener un comentario por su ID",
+            description = "Obtiene un comentario especificando su ID",
+            tags = { "comentario", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "comentario encontrado", content = { @Content(schema = @Schema(implementation = Comment.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Comment> findOne(@Parameter(description = "ID del comentario que se desea obtener")@PathVariable String id) {
+        return repository.findById(id)
+                .flatMap(row -> graphs.comments(List.of(row)).next())
+                .switchIfEmpty(Mono.error(new CommentNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    @Operation(
+            summary = "Crear un nuevo comentario",
+            description = "Crea un nuevo comentario utilizando la información proporcionada en el cuerpo de la solicitud",
+            tags = { "comentario", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "comentario creado exitosamente", content = { @Content(schema = @Schema(implementation = Comment.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Comment> create(@Valid @RequestBody Comment comment) {
+        return graphs.createComment(comment);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{id}")
+    @Operation(
+            summary = "Actualizar un comentario",
+            description = "Actualiza un comentario existente especificando su ID y proporcionando los datos actualizados en el cuerpo de la solicitud",
+            tags = { "comentario", "put" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "comentario actualizado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> update(@Valid @RequestBody Comment updatedComment, @Parameter(description = "ID del comentario a actualizar")@PathVariable String id) {
+        return graphs.updateComment(id, updatedComment)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new CommentNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un comentario",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "comentario", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "comentario modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del comentario a modificar")@PathVariable String id) {
+        return graphs.patch(Comment.class, CommentRow.class, id, patch, PATCHABLE_FIELDS)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new CommentNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Eliminar un comentario",
+            description = "Elimina un comentario existente, con su autor, especificando su ID",
+            tags = { "comentario", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "comentario eliminado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "comentario no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> delete(@Parameter(description = "ID del comentario a eliminar")@PathVariable String id) {
+        return graphs.deleteComment(id)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(new CommentNotFoundException()));
+    }
+}
@@ -0,0 +1,235 @@
+package aiss.videominer.controller.reactive;
+
+import aiss.videominer.exception.VideoNotFoundException;
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.Video;
+import aiss.videominer.model.reactive.VideoRow;
+import aiss.videominer.repository.reactive.CaptionRowRepository;
+import aiss.videominer.repository.reactive.CommentRowRepository;
+import aiss.videominer.repository.reactive.VideoRowRepository;
+import aiss.videominer.service.ReactiveGraphService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("videominer/videos")
+@Tag(name = "Videos", description = "Endpoints para gestionar los videos")
+public class ReactiveVideoController {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "releaseTime");
+
+    private final VideoRowRepository repository;
+    private final CommentRowRepository comments;
+    private final CaptionRowRepository captions;
+    private final ReactiveGraphService graphs;
+
+    public ReactiveVideoController(VideoRowRepository repository, CommentRowRepository comments,
+                                   CaptionRowRepository captions, ReactiveGraphService graphs) {
+        this.repository = repository;
+        this.comments = comments;
+        this.captions = captions;
+        this.graphs = graphs;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener todos los videos",
+            description = "Obtiene una lista paginada de todos los videos disponibles",
+            tags = { "video", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "videos encontrados", content = { @Content(schema = @Schema(implementation = Video.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "No se encontraron videos", content = { @Content(schema = @Schema()) })
+    })
+    public Flux<Video> findAll(@Parameter(description = "Número de página")@RequestParam(defaultValue = "0") int page,
+                               @Parameter(description = "Tamaño de la página")@RequestParam(defaultValue = "10") int size,
+                               @Parameter(description = "Nombre del video")@RequestParam(required = false) String name,
+                               @Parameter(description = "Orden de los videos")@RequestParam(required = false) String order,
+                               @Parameter(description = "Palabra clave que debe contener el nombre del video")@RequestParam(required = false) String containing) {
+        Pageable paging = Paging.of(page, size, order);
+        return (name != null ? repository.findByName(name, paging)
+                : containing != null ? repository.findByNameContaining(containing, paging)
+                : repository.findAllBy(paging))
+                .collectList()
+                .flatMapMany(graphs::videos)
+                .switchIfEmpty(Mono.error(new VideoNotFoundException()));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar todos los videos",
+            description = "Devuelve todos los videos con sus comentarios y captions, uno por línea (NDJSON), a medida que el cliente los consume",
+            tags = { "video", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "videos exportados", content = { @Content(schema = @Schema(implementation = Video.class), mediaType = "application/x-ndjson") })
+    })
+    public Flux<Video> export() {
+        return Paging.batches(repository::findByIdGreaterThan, VideoRow::id).concatMap(graphs::videos);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Obtener un video por su ID",
+            description = "Obtiene un video especificando su ID",
+            tags = { "video", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "video encontrado", content = { @Content(schema = @Schema(implementation = Video.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Video> findOne(@Parameter(description = "ID del video que se desea obtener")@PathVariable String id) {
+        return repository.findById(id)
+                .flatMap(row -> graphs.videos(List.of(row)).next())
+                .switchIfEmpty(Mono.error(new VideoNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    @Operation(
+            summary = "Crear un nuevo video",
+            description = "Crea un nuevo video utilizando la información proporcionada en el cuerpo de la solicitud",
+            tags = { "video", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "video creado exitosamente", content = { @Content(schema = @Schema(implementation = Video.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Video> create(@Valid @RequestBody Video video) {
+        return graphs.createVideo(video);
+    }
+
+    @GetMapping("/{id}/comments")
+    @Operation(
+            summary = "Obtener todos los comentarios del video segun su id",
+            description = "Obtiene todos los comentarios del video",
+            tags = { "video", "comentario", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "comentarios encontrados", content = { @Content(schema = @Schema(implementation = Comment.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Flux<Comment> findCommentsVideo(@Parameter(description = "ID del video del que se desea obtener todos sus comentarios")@PathVariable String id) {
+        return repository.existsById(id)
+                .flatMapMany(exists -> !exists ? Flux.error(new VideoNotFoundException())
+                        : comments.findByVideoId(id).collectList().flatMapMany(graphs::comments));
+    }
+
+    @GetMapping("/{id}/captions")
+    @Operation(
+            summary = "Obtener todos los captions del video segun su id",
+            description = "Obtiene todos los captions del video",
+            tags = { "video", "caption", "get" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "captions encontrados", content = { @Content(schema = @Schema(implementation = Caption.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Flux<Caption> findCaptionsVideo(@Parameter(description = "ID del video del que se desea obtener todos sus captions")@PathVariable String id) {
+        return repository.existsById(id)
+                .flatMapMany(exists -> !exists ? Flux.error(new VideoNotFoundException())
+                        : captions.findByVideoId(id).map(ReactiveGraphService::caption));
+    }
+
+    @PostMapping("/{id}/comments:batch")
+    @Operation(
+            summary = "Añadir comentarios a un video",
+            description = "Añade en una sola transacción los comentarios (y sus autores) a un video existente, omitiendo los comentarios cuyo ID ya existe",
+            tags = { "video", "comentario", "post" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "IDs de los comentarios creados y omitidos", content = { @Content(mediaType = "application/json") }),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Map<String, List<String>>> appendComments(@Valid @RequestBody List<Comment> comments,
+                                                          @Parameter(description = "ID del video al que se añaden los comentarios")@PathVariable String id) {
+        return graphs.appendComments(id, comments)
+                .switchIfEmpty(Mono.error(new VideoNotFoundException()))
+                .map(created -> {
+                    Set<String> createdIds = new HashSet<>(created);
+                    List<String> skipped = comments.stream()
+                            .map(Comment::getId)
+                            .filter(commentId -> !createdIds.contains(commentId))
+                            .distinct()
+                            .collect(Collectors.toList());
+                    Map<String, List<String>> res = new HashMap<>();
+                    res.put("created", created);
+                    res.put("skipped", skipped);
+                    return res;
+                });
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{id}")
+    @Operation(
+            summary = "Actualizar un video",
+            description = "Actualiza un video existente especificando su ID y proporcionando los datos actualizados en el cuerpo de la solicitud",
+            tags = { "video", "put" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "video actualizado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> update(@Valid @RequestBody Video updatedVideo, @Parameter(description = "ID del video a actualizar")@PathVariable String id) {
+        return graphs.updateVideo(id, updatedVideo)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new VideoNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    @Operation(
+            summary = "Modificar parcialmente un video",
+            description = "Modifica solo los campos presentes en el cuerpo de la solicitud (JSON Merge Patch). Un campo con valor null se elimina",
+            tags = { "video", "patch" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "video modificado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "400", description = "Solicitud incorrecta", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> patch(@RequestBody Map<String, Object> patch, @Parameter(description = "ID del video a modificar")@PathVariable String id) {
+        return graphs.patch(Video.class, VideoRow.class, id, patch, PATCHABLE_FIELDS)
+                .flatMap(found -> found ? Mono.<Void>empty() : Mono.error(new VideoNotFoundException()));
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Eliminar un video",
+            description = "Elimina un video existente, con sus comentarios y captions, especificando su ID",
+            tags = { "video", "delete" }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "video eliminado correctamente", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "404", description = "video no encontrado", content = { @Content(schema = @Schema()) })
+    })
+    public Mono<Void> delete(@Parameter(description = "ID del video a eliminar")@PathVariable String id) {
+        return graphs.deleteVideo(id)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(new VideoNotFoundException()));
+    }
+}
@@ -0,0 +1,28 @@
+package aiss.videominer.exception;
+
+import aiss.videominer.model.Channel;
+
+import java.util.List;
+
+/**
+ * Some partitions of a channel's videos could not be written. The channel is linked to the videos of the others,
+ * which are committed; the errors describe the failed ones.
+ */
+public class ChannelIngestException extends Exception{
+
+    private final Channel channel;
+    private final List<String> errors;
+
+    public ChannelIngestException(Channel channel, List<String> errors) {
+        this.channel = channel;
+        this.errors = errors;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -26,4 +26,30 @@ public class GlobalExceptionHandler {
         res.put("errors", errors);
         return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> handleInvalidPatchException(InvalidPatchException ex) {
+        Map<String, List<String>> res = new HashMap<>();
+        res.put("errors", ex.getErrors());
+        return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidGraphException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> handleInvalidGraphException(InvalidGraphException ex) {
+        Map<String, List<String>> res = new HashMap<>();
+        res.put("errors", ex.getErrors());
+        return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ChannelIngestException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> handleChannelIngestException(ChannelIngestException ex) {
+        // The written partitions are committed, so the POST is reported as a partial success and not as an error
+        Map<String, Object> res = new HashMap<>();
+        res.put("channel", ex.getChannel());
+        res.put("errors", ex.getErrors());
+        return new ResponseEntity<>(res, HttpStatus.MULTI_STATUS);
+    }
 }
@@ -0,0 +1,19 @@
+package aiss.videominer.exception;
+
+import java.util.List;
+
+/**
+ * Some entity of a channel, video or comment graph breaks a constraint of its model.
+ */
+public class InvalidGraphException extends Exception{
+
+    private final List<String> errors;
+
+    public InvalidGraphException(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
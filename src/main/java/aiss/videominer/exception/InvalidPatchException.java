@@ -0,0 +1,16 @@
+package aiss.videominer.exception;
+
+import java.util.List;
+
+public class InvalidPatchException extends Exception{
+
+    private final List<String> errors;
+
+    public InvalidPatchException(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,8 @@
+package aiss.videominer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.NOT_IMPLEMENTED, reason = "Query plans need the statement timing of videominer.slow-query.enabled")
+public class StatementCaptureDisabledException extends Exception{
+}
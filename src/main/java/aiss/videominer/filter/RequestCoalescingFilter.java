@@ -0,0 +1,165 @@
+package aiss.videominer.filter;
+
+import aiss.videominer.service.RequestCoalescer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses identical concurrent GET requests on the videominer resources into a single pass through the
+ * controllers. The first request renders the response; the ones that arrive while it is in flight receive a
+ * copy of the rendered bytes and headers. Only successful responses are shared: on any other status the waiting
+ * requests are handled normally. Writes that were not rejected start a new generation of the
+ * {@link RequestCoalescer}, so a GET that arrives after a write never joins a leader that started before it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "videominer.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    private static final String RESOURCES_PATH = "/videominer/";
+    private static final String ADMIN_PATH = "/videominer/admin/";
+    // Streams must not be buffered
+    private static final String EVENTS_PATH = "/videominer/events";
+
+    // Cookies belong to the client of the leader, and the length is set from the copied body
+    private static final Set<String> PRIVATE_HEADERS = Set.of(HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.CONTENT_TYPE.toLowerCase());
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private record RenderedResponse(String contentType, Map<String, List<String>> headers, byte[] body, String pathPattern) {
+    }
+
+    private final RequestCoalescer coalescer;
+
+    public RequestCoalescingFilter(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith(RESOURCES_PATH) || uri.startsWith(ADMIN_PATH) || uri.startsWith(EVENTS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            write(request, response, filterChain);
+            return;
+        }
+        if (!"GET".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean[] leader = { false };
+        RenderedResponse rendered;
+        try {
+            rendered = coalescer.execute(key(request), () -> {
+                leader[0] = true;
+                return render(request, response, filterChain);
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+
+        if (leader[0]) {
+            return;
+        }
+        if (rendered == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Followers never reach a handler, so they are reported under the route of the leader
+        if (rendered.pathPattern() != null) {
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setPathPattern(rendered.pathPattern()));
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        rendered.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(rendered.contentType());
+        response.setContentLength(rendered.body().length);
+        response.getOutputStream().write(rendered.body());
+    }
+
+    private RenderedResponse render(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws IOException, ServletException {
+        // Headers set by the outer filters (e.g. tracing) belong to the leader's own exchange and are not shared
+        Set<String> outer = new HashSet<>(response.getHeaderNames());
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() != HttpServletResponse.SC_OK || request.isAsyncStarted()) {
+                return null;
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : wrapper.getHeaderNames()) {
+                if (!outer.contains(name) && !PRIVATE_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, List.copyOf(wrapper.getHeaders(name)));
+                }
+            }
+            String pathPattern = ServerHttpObservationFilter.findObservationContext(request)
+                    .map(ServerRequestObservationContext::getPathPattern)
+                    .orElse(null);
+            return new RenderedResponse(wrapper.getContentType(), headers, wrapper.getContentAsByteArray(), pathPattern);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * The response of a write is held back until the new generation has started, so a client that has seen it
+     * cannot send a GET that still joins an older leader.
+     */
+    private void write(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws IOException, ServletException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (!isRejected(wrapper.getStatus())) {
+                coalescer.invalidate();
+            }
+            if (!request.isAsyncStarted()) {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Whether a write was refused before changing anything (a 4xx). Any other outcome, including a 5xx or an
+     * exception, may have committed at least part of the write.
+     */
+    static boolean isRejected(int status) {
+        return status >= HttpServletResponse.SC_BAD_REQUEST && status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    private String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return coalescer.generation() + "|" + request.getRequestURI() + (query == null ? "" : "?" + query)
+                + "|" + request.getHeader(HttpHeaders.ACCEPT);
+    }
+}
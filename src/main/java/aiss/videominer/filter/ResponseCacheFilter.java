@@ -0,0 +1,104 @@
+package aiss.videominer.filter;
+
+import aiss.videominer.service.ResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves GET /videominer/{resource}/{id} from the rendered bytes kept in {@link ResponseCache}, and stores the
+ * body of every successful miss. Writes on a resource invalidate the cache unless they were rejected.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "videominer.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    // Computed views such as /videos/trending or /captions/languages are not entities, so they are never cached
+    private static final Pattern RESOURCE_PATH = Pattern.compile("^/videominer/(channels|videos|comments|captions)(?:/(?!(?:trending|languages)(?:/|$))([^/]+))?(/.*)?$");
+    private static final Set<String> KEY_PARAMETERS = Set.of("fields", "format");
+    // HEAD, OPTIONS and TRACE change nothing, so they neither invalidate nor use the cache
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ResponseCache cache;
+
+    public ResponseCacheFilter(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !RESOURCE_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = RESOURCE_PATH.matcher(request.getRequestURI());
+        matcher.matches();
+        String resource = matcher.group(1);
+        String id = matcher.group(2);
+
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (!RequestCoalescingFilter.isRejected(response.getStatus())) {
+                    // A write on a sub-resource (e.g. /videos/{id}/comments) invalidates its parent document
+                    cache.invalidate(resource, id);
+                }
+            }
+            return;
+        }
+        if (!"GET".equals(request.getMethod()) || id == null || matcher.group(3) != null || !request.getParameterMap().keySet().stream().allMatch(KEY_PARAMETERS::contains)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ResponseCache.Key key = new ResponseCache.Key(resource, id, request.getParameter("fields"), format(request));
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            // Never reaches a handler, so the route of the request metrics is set here
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setPathPattern("/videominer/" + resource + "/{id}"));
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(entry.contentType());
+            response.setContentLength(entry.body().capacity());
+            Channels.newChannel(response.getOutputStream()).write(entry.content());
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+                cache.put(key, wrapper.getContentType(), wrapper.getContentAsByteArray(), generation);
+            }
+        } finally {
+            if (!request.isAsyncStarted()) {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private static String format(HttpServletRequest request) {
+        String format = request.getParameter("format");
+        return format != null ? format : request.getHeader(HttpHeaders.ACCEPT);
+    }
+}
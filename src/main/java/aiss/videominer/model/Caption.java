@@ -1,15 +1,29 @@
 package aiss.videominer.model;
 
+import aiss.videominer.service.ChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * @author Juan C. Alonso
  */
 @Entity
-@Table(name = "Caption")
+@EntityListeners(ChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "caption")
+@Table(name = "Caption", indexes = {
+        @Index(name = "idx_caption_language", columnList = "language"),
+        @Index(name = "idx_caption_video", columnList = "videoId")
+})
 public class Caption {
 
     @Id
@@ -21,6 +35,12 @@ public class Caption {
 
     @JsonProperty("language")
     private String language;
+
+    // Written through Video.captions, mapped here read-only so that captions can be filtered by video
+    @JsonIgnore
+    @Column(name = "videoId", insertable = false, updatable = false)
+    private String videoId;
+
     public Caption(){
 
     }
@@ -54,6 +74,10 @@ public class Caption {
         this.language = language;
     }
 
+    public String getVideoId() {
+        return videoId;
+    }
+
     @Override
     public String toString() {
         return "Caption{" +
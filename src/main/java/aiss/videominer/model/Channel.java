@@ -1,9 +1,12 @@
 package aiss.videominer.model;
 
+import aiss.videominer.service.ChangeListener;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +15,9 @@ import java.util.List;
  * @author Juan C. Alonso
  */
 @Entity
+@EntityListeners(ChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "channel")
 @Table(name = "Channel")
 public class Channel {
 
@@ -35,6 +41,7 @@ public class Channel {
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "channelId")
     @NotNull(message = "Channel videos cannot be null")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "channel.videos")
     private List<Video> videos;
 
     public Channel(String id, String name, List<Video> videos, String createdTime, String description) {
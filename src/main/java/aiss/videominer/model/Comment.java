@@ -1,14 +1,24 @@
 package aiss.videominer.model;
 
+import aiss.videominer.service.ChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * @author Juan C. Alonso
  */
 @Entity
-@Table(name = "Comment")
+@EntityListeners(ChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comment")
+@Table(name = "Comment", indexes = {
+        @Index(name = "idx_comment_video_created", columnList = "videoId, createdOn"),
+        @Index(name = "idx_comment_created", columnList = "createdOn")
+})
 public class Comment {
 
     @Id
@@ -26,6 +36,12 @@ public class Comment {
     @OneToOne(cascade = CascadeType.ALL)
     @NotNull(message = "Comment author cannot be null")
     private User author;
+
+    // Written through Video.comments, mapped here read-only so that comments can be filtered by video
+    @JsonIgnore
+    @Column(name = "videoId", insertable = false, updatable = false)
+    private String videoId;
+
     public Comment(){
 
     }
@@ -68,6 +84,10 @@ public class Comment {
         this.author = author;
     }
 
+    public String getVideoId() {
+        return videoId;
+    }
+
     @Override
     public String toString() {
         return "Comment{" +
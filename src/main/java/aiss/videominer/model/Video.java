@@ -1,9 +1,12 @@
 package aiss.videominer.model;
 
+import aiss.videominer.service.ChangeListener;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -11,6 +14,9 @@ import java.util.List;
  * @author Juan C. Alonso
  */
 @Entity
+@EntityListeners(ChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "video")
 @Table(name = "Video")
 public class Video {
 
@@ -34,12 +40,14 @@ public class Video {
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "videoId")
     @NotNull(message = "Video comments cannot be null")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "video.comments")
     private List<Comment> comments;
 
     @JsonProperty("captions")
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "videoId")
     @NotNull(message = "Video captions cannot be null")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "video.captions")
     private List<Caption> captions;
 
     public Video(String id, String name, String description, String releaseTime) {
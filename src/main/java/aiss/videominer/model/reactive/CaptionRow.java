@@ -0,0 +1,11 @@
+package aiss.videominer.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the caption table, with the id of its video.
+ */
+@Table("caption")
+public record CaptionRow(@Id String id, String name, String language, String videoId) {
+}
@@ -0,0 +1,12 @@
+package aiss.videominer.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the channel table (mapped by JPA as {@link aiss.videominer.model.Channel}) for the R2DBC repositories of
+ * the reactive profile. The videos are loaded separately.
+ */
+@Table("channel")
+public record ChannelRow(@Id String id, String name, String description, String createdTime) {
+}
@@ -0,0 +1,11 @@
+package aiss.videominer.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the comment table, with the ids of its author and video.
+ */
+@Table("comment")
+public record CommentRow(@Id String id, String text, String createdOn, Long authorId, String videoId) {
+}
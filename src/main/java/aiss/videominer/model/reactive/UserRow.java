@@ -0,0 +1,13 @@
+package aiss.videominer.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the table of the comment authors.
+ */
+@Table("vmuser")
+public record UserRow(@Id Long id, String name, @Column("user_link") String userLink,
+                      @Column("picture_link") String pictureLink) {
+}
@@ -0,0 +1,11 @@
+package aiss.videominer.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the video table, with the id of its channel.
+ */
+@Table("video")
+public record VideoRow(@Id String id, String name, String description, String releaseTime, String channelId) {
+}
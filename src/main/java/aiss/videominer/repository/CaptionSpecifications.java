@@ -0,0 +1,53 @@
+package aiss.videominer.repository;
+
+import aiss.videominer.model.Caption;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters of the caption list. Only the given filters become predicates, so the query stays a plain conjunction
+ * the database can serve from the language and video indexes.
+ */
+public final class CaptionSpecifications {
+
+    private CaptionSpecifications() {
+    }
+
+    public static Specification<Caption> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+
+    public static Specification<Caption> nameContaining(String containing) {
+        return (root, query, cb) -> cb.like(root.get("name"), "%" + containing + "%");
+    }
+
+    public static Specification<Caption> hasLanguage(String language) {
+        return (root, query, cb) -> cb.equal(root.get("language"), language);
+    }
+
+    public static Specification<Caption> inVideo(String videoId) {
+        return (root, query, cb) -> cb.equal(root.get("videoId"), videoId);
+    }
+
+    /**
+     * Conjunction of the non-null filters, or null if there are none.
+     */
+    public static Specification<Caption> matching(String name, String containing, String language, String videoId) {
+        List<Specification<Caption>> filters = new ArrayList<>();
+        if (name != null) {
+            filters.add(hasName(name));
+        }
+        if (containing != null) {
+            filters.add(nameContaining(containing));
+        }
+        if (language != null) {
+            filters.add(hasLanguage(language));
+        }
+        if (videoId != null) {
+            filters.add(inVideo(videoId));
+        }
+        return filters.isEmpty() ? null : Specification.allOf(filters);
+    }
+}
@@ -4,12 +4,19 @@ import aiss.videominer.model.Channel;
 import aiss.videominer.model.Video;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ChannelRepository extends JpaRepository<Channel, String> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.channel.findByName")
+    })
     Page<Channel> findByName(String name, Pageable pageable);
     Page<Channel> findByNameContaining(String containing, Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package aiss.videominer.repository;
+
+import aiss.videominer.model.Comment;
+
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+
+    /**
+     * Inserts the comments whose ids are not stored yet and links them to the video, without loading the video's
+     * current comments. Returns the ids that were inserted.
+     */
+    List<String> appendToVideo(String videoId, List<Comment> comments);
+}
@@ -0,0 +1,84 @@
+package aiss.videominer.repository;
+
+import aiss.videominer.model.Comment;
+import aiss.videominer.service.Change;
+import aiss.videominer.service.ChangeLog;
+import aiss.videominer.service.OwnershipIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private OwnershipIndex ownership;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public List<String> appendToVideo(String videoId, List<Comment> comments) {
+        Map<String, Comment> byId = new LinkedHashMap<>();
+        for (Comment comment : comments) {
+            byId.putIfAbsent(comment.getId(), comment);
+        }
+        if (byId.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> existing = new HashSet<>(entityManager
+                .createQuery("select c.id from Comment c where c.id in :ids", String.class)
+                .setParameter("ids", byId.keySet())
+                .getResultList());
+
+        List<String> created = new ArrayList<>();
+        for (Comment comment : byId.values()) {
+            if (existing.contains(comment.getId())) {
+                continue;
+            }
+            // Authors always get a new generated id (see User)
+            if (comment.getAuthor() != null) {
+                comment.getAuthor().setId(null);
+            }
+            entityManager.persist(comment);
+            created.add(comment.getId());
+            if (created.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        if (created.isEmpty()) {
+            return created;
+        }
+        entityManager.flush();
+
+        // The join column is owned by Video.comments and not mapped on Comment, hence the native update.
+        // Synchronizing on Comment limits the cache invalidation to the comment and video.comments regions.
+        entityManager.createNativeQuery("update comment set video_id = :videoId where id in (:ids)")
+                .setParameter("videoId", videoId)
+                .setParameter("ids", created)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Comment.class)
+                .executeUpdate();
+        created.forEach(commentId -> ownership.commentInVideo(commentId, videoId));
+        changeLog.recordAfterCommit("videos", videoId, Change.Operation.UPDATED);
+        return created;
+    }
+}
@@ -0,0 +1,95 @@
+package aiss.videominer.repository;
+
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters of the comment list, composed by {@link #matching} into one query whatever the combination. The video
+ * and date filters are served from the (videoId, createdOn) and createdOn indexes of the comment table.
+ */
+public final class CommentSpecifications {
+
+    private CommentSpecifications() {
+    }
+
+    public static Specification<Comment> hasText(String text) {
+        return (root, query, cb) -> cb.equal(root.get("text"), text);
+    }
+
+    public static Specification<Comment> textContaining(String containing) {
+        return (root, query, cb) -> cb.like(root.get("text"), "%" + containing + "%");
+    }
+
+    /**
+     * Comments whose author has the given name or user link.
+     */
+    public static Specification<Comment> byAuthor(String author) {
+        return (root, query, cb) -> {
+            Join<Comment, User> join = root.join("author");
+            return cb.or(cb.equal(join.get("name"), author), cb.equal(join.get("user_link"), author));
+        };
+    }
+
+    public static Specification<Comment> inVideo(String videoId) {
+        return (root, query, cb) -> cb.equal(root.get("videoId"), videoId);
+    }
+
+    // Channel to video is only mapped from the channel side, so the channel's videos are a subquery
+    public static Specification<Comment> inChannel(String channelId) {
+        return (root, query, cb) -> {
+            Subquery<String> videos = query.subquery(String.class);
+            Root<Channel> channel = videos.from(Channel.class);
+            Join<Channel, Video> video = channel.join("videos");
+            videos.select(video.get("id")).where(cb.equal(channel.get("id"), channelId));
+            return root.get("videoId").in(videos);
+        };
+    }
+
+    public static Specification<Comment> createdFrom(String from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdOn"), from);
+    }
+
+    public static Specification<Comment> createdBefore(String to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdOn"), to);
+    }
+
+    /**
+     * Conjunction of the non-null filters, or null if there are none. Dates are ISO-8601 strings, which compare
+     * in chronological order.
+     */
+    public static Specification<Comment> matching(String text, String containing, String author, String videoId,
+                                                  String channelId, String createdFrom, String createdTo) {
+        List<Specification<Comment>> filters = new ArrayList<>();
+        if (text != null) {
+            filters.add(hasText(text));
+        }
+        if (containing != null) {
+            filters.add(textContaining(containing));
+        }
+        if (author != null) {
+            filters.add(byAuthor(author));
+        }
+        if (videoId != null) {
+            filters.add(inVideo(videoId));
+        }
+        if (channelId != null) {
+            filters.add(inChannel(channelId));
+        }
+        if (createdFrom != null) {
+            filters.add(createdFrom(createdFrom));
+        }
+        if (createdTo != null) {
+            filters.add(createdBefore(createdTo));
+        }
+        return filters.isEmpty() ? null : Specification.allOf(filters);
+    }
+}
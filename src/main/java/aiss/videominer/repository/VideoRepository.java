@@ -4,9 +4,16 @@ import aiss.videominer.model.Channel;
 import aiss.videominer.model.Video;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface VideoRepository extends JpaRepository<Video, String> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.video.findByName")
+    })
     Page<Video> findByName(String name, Pageable pageable);
     Page<Video> findByNameContaining(String containing, Pageable pageable);
 }
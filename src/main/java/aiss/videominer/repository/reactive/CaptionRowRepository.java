@@ -0,0 +1,20 @@
+package aiss.videominer.repository.reactive;
+
+import aiss.videominer.model.reactive.CaptionRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface CaptionRowRepository extends R2dbcRepository<CaptionRow, String> {
+    Flux<CaptionRow> findAllBy(Pageable pageable);
+    Flux<CaptionRow> findByIdGreaterThan(String id, Pageable pageable);
+    Flux<CaptionRow> findByLanguage(String language, Pageable pageable);
+    Flux<CaptionRow> findByVideoId(String videoId);
+    Flux<CaptionRow> findByVideoId(String videoId, Pageable pageable);
+    Flux<CaptionRow> findByLanguageAndVideoId(String language, String videoId, Pageable pageable);
+    Flux<CaptionRow> findByVideoIdIn(Collection<String> videoIds);
+    Mono<Void> deleteByVideoIdIn(Collection<String> videoIds);
+}
@@ -0,0 +1,13 @@
+package aiss.videominer.repository.reactive;
+
+import aiss.videominer.model.reactive.ChannelRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+public interface ChannelRowRepository extends R2dbcRepository<ChannelRow, String> {
+    Flux<ChannelRow> findAllBy(Pageable pageable);
+    Flux<ChannelRow> findByIdGreaterThan(String id, Pageable pageable);
+    Flux<ChannelRow> findByName(String name, Pageable pageable);
+    Flux<ChannelRow> findByNameContaining(String containing, Pageable pageable);
+}
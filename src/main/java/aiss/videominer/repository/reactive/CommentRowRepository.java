@@ -0,0 +1,18 @@
+package aiss.videominer.repository.reactive;
+
+import aiss.videominer.model.reactive.CommentRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface CommentRowRepository extends R2dbcRepository<CommentRow, String> {
+    Flux<CommentRow> findAllBy(Pageable pageable);
+    Flux<CommentRow> findByIdGreaterThan(String id, Pageable pageable);
+    Flux<CommentRow> findByVideoId(String videoId);
+    Flux<CommentRow> findByVideoId(String videoId, Pageable pageable);
+    Flux<CommentRow> findByVideoIdIn(Collection<String> videoIds);
+    Mono<Void> deleteByVideoIdIn(Collection<String> videoIds);
+}
@@ -0,0 +1,63 @@
+package aiss.videominer.repository.reactive;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * R2DBC access of the reactive profile to the H2 database of spring.datasource.url, whose schema stays managed by
+ * JPA. The connection pool is deliberately not a bean: a ConnectionFactory bean would turn off the JDBC DataSource
+ * the rest of the application uses, and a reactive transaction manager bean the JPA one.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(entityOperationsRef = "r2dbcEntityTemplate")
+public class ReactiveRepositoryConfiguration implements DisposableBean {
+
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    private final ConnectionPool pool;
+
+    public ReactiveRepositoryConfiguration(@Value("${spring.datasource.url}") String url,
+                                           @Value("${spring.datasource.username:sa}") String username,
+                                           @Value("${spring.datasource.password:}") String password,
+                                           @Value("${videominer.reactive.pool-size:10}") int poolSize) {
+        if (!url.startsWith(H2_PREFIX)) {
+            throw new IllegalStateException("The reactive profile only supports H2, not " + url);
+        }
+        H2ConnectionFactory h2 = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(h2)
+                .initialSize(1)
+                .maxSize(poolSize)
+                .build());
+    }
+
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate() {
+        return new R2dbcEntityTemplate(pool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactions() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(pool));
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
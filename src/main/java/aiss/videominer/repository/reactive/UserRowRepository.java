@@ -0,0 +1,13 @@
+package aiss.videominer.repository.reactive;
+
+import aiss.videominer.model.reactive.UserRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface UserRowRepository extends R2dbcRepository<UserRow, Long> {
+
+    // The sequence of the ids Hibernate assigns (in blocks of 50), so that ids taken here never collide with them
+    @Query("select next value for vmuser_seq")
+    Mono<Long> nextId();
+}
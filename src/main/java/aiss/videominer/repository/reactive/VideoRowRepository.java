@@ -0,0 +1,17 @@
+package aiss.videominer.repository.reactive;
+
+import aiss.videominer.model.reactive.VideoRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface VideoRowRepository extends R2dbcRepository<VideoRow, String> {
+    Flux<VideoRow> findAllBy(Pageable pageable);
+    Flux<VideoRow> findByIdGreaterThan(String id, Pageable pageable);
+    Flux<VideoRow> findByName(String name, Pageable pageable);
+    Flux<VideoRow> findByNameContaining(String containing, Pageable pageable);
+    Flux<VideoRow> findByChannelId(String channelId);
+    Flux<VideoRow> findByChannelIdIn(Collection<String> channelIds);
+}
@@ -0,0 +1,47 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+
+import java.util.Map;
+
+/**
+ * Attributes of a written entity that the in-memory indexes need (names, authors, languages). They are taken when
+ * the entity is written and travel with its {@link Change}, so an index only applies what the committed change
+ * itself wrote: a rolled back write leaves nothing behind, and a change that carries no attribute (e.g. a delete)
+ * changes none.
+ */
+public final class AttributeStaging {
+
+    public static final String NAME = "name";
+    public static final String AUTHOR = "author";
+    public static final String LANGUAGE = "language";
+
+    // Captions without language are counted under this language
+    public static final String UNKNOWN_LANGUAGE = "unknown";
+
+    private AttributeStaging() {
+    }
+
+    public static Map<String, String> of(Object entity) {
+        if (entity instanceof Channel channel && channel.getName() != null) {
+            return Map.of(NAME, channel.getName());
+        } else if (entity instanceof Video video && video.getName() != null) {
+            return Map.of(NAME, video.getName());
+        } else if (entity instanceof Comment comment && comment.getAuthor() != null) {
+            String author = authorKey(comment.getAuthor());
+            return author == null ? Map.of() : Map.of(AUTHOR, author);
+        } else if (entity instanceof Caption caption) {
+            return Map.of(LANGUAGE, caption.getLanguage() != null ? caption.getLanguage() : UNKNOWN_LANGUAGE);
+        }
+        return Map.of();
+    }
+
+    // Commenters are told apart by their channel link, or by their name when they have none
+    private static String authorKey(User author) {
+        return author.getUser_link() != null ? author.getUser_link() : author.getName();
+    }
+}
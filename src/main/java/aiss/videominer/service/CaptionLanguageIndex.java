@@ -0,0 +1,192 @@
+package aiss.videominer.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of videos with captions in each language, for the language facet of the caption list. Languages are
+ * dictionary-encoded: each distinct language string is kept once and the captions and videos only hold its int
+ * code, so the index does not grow with copies of "en" or "es". Captions are attributed to the video they were
+ * created in, as recorded by the {@link OwnershipIndex}. Kept up to date from the {@link ChangeLog}.
+ */
+@Service
+public class CaptionLanguageIndex implements ChangeLog.Listener {
+
+    public record LanguageFacet(String language, long videos) {
+    }
+
+    // Captions per language code of a video, in two parallel arrays since a video has few languages
+    private static final class VideoLanguages {
+        private int[] codes = new int[2];
+        private int[] captions = new int[2];
+        private int size;
+
+        // Returns true if the video had no caption in that language before
+        private boolean add(int code) {
+            for (int i = 0; i < size; i++) {
+                if (codes[i] == code) {
+                    captions[i]++;
+                    return false;
+                }
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                captions = Arrays.copyOf(captions, size * 2);
+            }
+            codes[size] = code;
+            captions[size] = 1;
+            size++;
+            return true;
+        }
+
+        // Returns true if the video has no caption left in that language
+        private boolean remove(int code) {
+            for (int i = 0; i < size; i++) {
+                if (codes[i] == code) {
+                    if (--captions[i] > 0) {
+                        return false;
+                    }
+                    size--;
+                    codes[i] = codes[size];
+                    captions[i] = captions[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final OwnershipIndex ownership;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // The dictionary: language of each code and code of each language. Codes are never reused
+    private final List<String> languages = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    // Videos with captions in each language, by code
+    private long[] videos = new long[8];
+    private final Map<String, Integer> captionCodes = new HashMap<>();
+    private final Map<String, VideoLanguages> videoLanguages = new HashMap<>();
+
+    public CaptionLanguageIndex(ChangeLog changeLog, OwnershipIndex ownership) {
+        this.ownership = ownership;
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Returns every language with captions and the number of videos having captions in it, the most common first.
+     */
+    public List<LanguageFacet> facets() {
+        List<LanguageFacet> facets = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int code = 0; code < languages.size(); code++) {
+                if (videos[code] > 0) {
+                    facets.add(new LanguageFacet(languages.get(code), videos[code]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        facets.sort(Comparator.comparingLong(LanguageFacet::videos).reversed().thenComparing(LanguageFacet::language));
+        return facets;
+    }
+
+    int dictionarySize() {
+        lock.readLock().lock();
+        try {
+            return languages.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : Change.parentsFirst(changes)) {
+                if ("captions".equals(change.resource())) {
+                    onCaption(change);
+                } else if ("videos".equals(change.resource()) && change.operation() == Change.Operation.DELETED) {
+                    onVideoDeleted(change.id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onCaption(Change change) {
+        String language = change.attribute(AttributeStaging.LANGUAGE);
+        Integer previous = captionCodes.get(change.id());
+        switch (change.operation()) {
+            case CREATED -> {
+                String videoId = ownership.videoOfCaption(change.id());
+                // Captions outside a video have no video to count
+                if (videoId != null && language != null && previous == null) {
+                    int code = encode(language);
+                    captionCodes.put(change.id(), code);
+                    if (videoLanguages.computeIfAbsent(videoId, id -> new VideoLanguages()).add(code)) {
+                        videos[code]++;
+                    }
+                }
+            }
+            case UPDATED -> {
+                if (previous != null && language != null && !languages.get(previous).equals(language)) {
+                    String videoId = ownership.videoOfCaption(change.id());
+                    int code = encode(language);
+                    captionCodes.put(change.id(), code);
+                    VideoLanguages counted = videoId == null ? null : videoLanguages.get(videoId);
+                    if (counted != null) {
+                        if (counted.remove(previous)) {
+                            videos[previous]--;
+                        }
+                        if (counted.add(code)) {
+                            videos[code]++;
+                        }
+                    }
+                }
+            }
+            case DELETED -> {
+                captionCodes.remove(change.id());
+                String videoId = ownership.videoOfCaption(change.id());
+                VideoLanguages counted = videoId == null ? null : videoLanguages.get(videoId);
+                if (previous != null && counted != null && counted.remove(previous)) {
+                    videos[previous]--;
+                    if (counted.size == 0) {
+                        videoLanguages.remove(videoId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void onVideoDeleted(String videoId) {
+        VideoLanguages counted = videoLanguages.remove(videoId);
+        if (counted != null) {
+            for (int i = 0; i < counted.size; i++) {
+                videos[counted.codes[i]]--;
+            }
+        }
+    }
+
+    private int encode(String language) {
+        Integer code = codes.get(language);
+        if (code == null) {
+            code = languages.size();
+            languages.add(language);
+            codes.put(language, code);
+            if (code == videos.length) {
+                videos = Arrays.copyOf(videos, code * 2);
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,63 @@
+package aiss.videominer.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry of the change feed. The channel is the one the entity belongs to, when known. The payload is only filled
+ * in when a consumer asks for it, with the current state of the entity (null once it has been deleted). The
+ * attributes are the ones the in-memory indexes need (see {@link AttributeStaging}) and are not published.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Change(long seq, String resource, String id, Operation operation, long timestamp, String channelId, Object payload,
+                     @JsonIgnore Map<String, String> attributes) {
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+
+    public Change(long seq, String resource, String id, Operation operation, long timestamp, String channelId, Object payload) {
+        this(seq, resource, id, operation, timestamp, channelId, payload, Map.of());
+    }
+
+    public Change withPayload(Object payload) {
+        return new Change(seq, resource, id, operation, timestamp, channelId, payload, attributes);
+    }
+
+    /**
+     * Value of one of the {@link AttributeStaging} attributes written by this change, or null if it wrote none.
+     */
+    public String attribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Reorders a batch of changes so that channels are created or updated before their videos, and videos before
+     * their comments and captions, followed by the deletions in their original order. Hibernate does not guarantee
+     * the order in which a cascaded graph is inserted.
+     */
+    public static List<Change> parentsFirst(List<Change> changes) {
+        List<Change> ordered = new ArrayList<>(changes.size());
+        changes.stream()
+                .filter(change -> change.operation() != Operation.DELETED)
+                .sorted(Comparator.comparingInt(change -> depth(change.resource())))
+                .forEach(ordered::add);
+        changes.stream()
+                .filter(change -> change.operation() == Operation.DELETED)
+                .forEach(ordered::add);
+        return ordered;
+    }
+
+    private static int depth(String resource) {
+        return switch (resource) {
+            case "channels" -> 0;
+            case "videos" -> 1;
+            default -> 2;
+        };
+    }
+}
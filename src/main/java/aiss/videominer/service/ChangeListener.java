@@ -0,0 +1,75 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.Video;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import java.util.Map;
+
+/**
+ * JPA entity listener that feeds the {@link ChangeLog}, with the {@link AttributeStaging attributes} of the written
+ * entities. Being entity-level, it also sees the videos, comments and captions written or deleted in cascade with
+ * their channel or video.
+ */
+public class ChangeListener {
+
+    private final ChangeLog changeLog;
+
+    public ChangeListener(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        record(entity, Change.Operation.CREATED);
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        record(entity, Change.Operation.UPDATED);
+    }
+
+    @PostRemove
+    public void deleted(Object entity) {
+        record(entity, Change.Operation.DELETED);
+    }
+
+    private void record(Object entity, Change.Operation operation) {
+        String resource = resourceOf(entity.getClass());
+        if (resource != null) {
+            changeLog.recordAfterCommit(resource, idOf(entity), operation,
+                    operation == Change.Operation.DELETED ? Map.of() : AttributeStaging.of(entity));
+        }
+    }
+
+    /**
+     * Name of the resource (as in its path) for an entity class, or null for entities outside the feed.
+     */
+    public static String resourceOf(Class<?> entityClass) {
+        if (Channel.class.isAssignableFrom(entityClass)) {
+            return "channels";
+        } else if (Video.class.isAssignableFrom(entityClass)) {
+            return "videos";
+        } else if (Comment.class.isAssignableFrom(entityClass)) {
+            return "comments";
+        } else if (Caption.class.isAssignableFrom(entityClass)) {
+            return "captions";
+        }
+        return null;
+    }
+
+    private static String idOf(Object entity) {
+        if (entity instanceof Channel channel) {
+            return channel.getId();
+        } else if (entity instanceof Video video) {
+            return video.getId();
+        } else if (entity instanceof Comment comment) {
+            return comment.getId();
+        }
+        return ((Caption) entity).getId();
+    }
+}
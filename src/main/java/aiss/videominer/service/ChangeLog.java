@@ -0,0 +1,143 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ordered feed of the created, updated and deleted entities. Every change gets the next value of a monotonic
+ * sequence when its transaction commits, so a consumer that has read up to N never sees a change numbered N or
+ * lower appear later. Only the last {@code retention} changes are kept.
+ */
+@Service
+public class ChangeLog {
+
+    /**
+     * Notified, in order, of every batch of appended changes. Called while the log is locked, so implementations
+     * must only hand the changes over and return.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onChanges(List<Change> changes);
+    }
+
+    private record Pending(String resource, String id, Change.Operation operation, Map<String, String> attributes) {
+    }
+
+    private final Change[] ring;
+    private final OwnershipIndex ownership;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long nextSeq = 1;
+
+    public ChangeLog(@Value("${videominer.changes.retention:100000}") int retention, OwnershipIndex ownership) {
+        this.ring = new Change[retention];
+        this.ownership = ownership;
+    }
+
+    /**
+     * Records the change once the current transaction commits (or right away outside a transaction). Changes of
+     * a rolled back transaction are discarded.
+     */
+    public void recordAfterCommit(String resource, String id, Change.Operation operation) {
+        recordAfterCommit(resource, id, operation, Map.of());
+    }
+
+    /**
+     * Same as {@link #recordAfterCommit(String, String, Change.Operation)}, with the attributes the change wrote.
+     */
+    @SuppressWarnings("unchecked")
+    public void recordAfterCommit(String resource, String id, Change.Operation operation, Map<String, String> attributes) {
+        Pending change = new Pending(resource, id, operation, attributes);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(change));
+            return;
+        }
+        List<Pending> pending = (List<Pending>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Pending> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ChangeLog.this);
+                    if (status == STATUS_COMMITTED) {
+                        append(transactionChanges);
+                    }
+                }
+            });
+            pending = transactionChanges;
+        }
+        pending.add(change);
+    }
+
+    private synchronized void append(List<Pending> changes) {
+        long timestamp = System.currentTimeMillis();
+        List<Change> appended = new ArrayList<>(changes.size());
+        for (Pending change : changes) {
+            long seq = nextSeq++;
+            String channelId = ownership.channelOf(change.resource(), change.id());
+            Change appendedChange = new Change(seq, change.resource(), change.id(), change.operation(), timestamp, channelId, null,
+                    change.attributes());
+            ring[(int) (seq % ring.length)] = appendedChange;
+            appended.add(appendedChange);
+        }
+        listeners.forEach(listener -> listener.onChanges(appended));
+        // After the listeners, which may still need to know where the deleted entities belonged
+        for (Change change : appended) {
+            if (change.operation() == Change.Operation.DELETED) {
+                ownership.remove(change.resource(), change.id());
+            }
+        }
+    }
+
+    /**
+     * Hands the retained changes after {@code since} to the listener and registers it for the following ones,
+     * atomically, so that it gets every change once and in order.
+     */
+    public synchronized void subscribe(long since, Listener listener) throws ChangesExpiredException {
+        List<Change> backlog = since(since, ring.length);
+        if (!backlog.isEmpty()) {
+            listener.onChanges(backlog);
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers the listener for the changes appended from now on.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    /**
+     * Returns up to {@code limit} changes with a sequence greater than {@code since}, in order.
+     *
+     * @throws ChangesExpiredException if some of the changes after {@code since} are no longer retained
+     */
+    public synchronized List<Change> since(long since, int limit) throws ChangesExpiredException {
+        long first = Math.max(1, nextSeq - ring.length);
+        if (since + 1 < first) {
+            throw new ChangesExpiredException();
+        }
+        List<Change> changes = new ArrayList<>();
+        for (long seq = Math.max(since + 1, first); seq < nextSeq && changes.size() < limit; seq++) {
+            changes.add(ring[(int) (seq % ring.length)]);
+        }
+        return changes;
+    }
+}
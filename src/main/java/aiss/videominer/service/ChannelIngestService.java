@@ -0,0 +1,130 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChannelIngestException;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Video;
+import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.repository.VideoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes the channels POSTed to /videominer/channels. A channel with up to videominer.ingest.partition-size videos
+ * is saved in cascade. The videos of a larger one (with their comments and captions) are split into partitions of
+ * that size, written concurrently by a pool of videominer.ingest.threads threads, each partition in its own batched
+ * transaction, and a last transaction links them to the channel. A failed partition does not roll back the others:
+ * the channel is linked to the videos that were written and the failed partitions are reported, so that the POST,
+ * being an upsert, can be retried.
+ */
+@Service
+public class ChannelIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelIngestService.class);
+
+    private final ChannelRepository channelRepository;
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OwnershipIndex ownership;
+    private final int partitionSize;
+    private final ExecutorService workers;
+
+    public ChannelIngestService(ChannelRepository channelRepository,
+                                VideoRepository videoRepository,
+                                TransactionTemplate transactionTemplate,
+                                OwnershipIndex ownership,
+                                @Value("${videominer.ingest.partition-size:100}") int partitionSize,
+                                @Value("${videominer.ingest.threads:0}") int threads,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.channelRepository = channelRepository;
+        this.videoRepository = videoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ownership = ownership;
+        this.partitionSize = partitionSize;
+        // Partitions then wait for a connection without holding a platform thread, so the pool needs no bound
+        this.workers = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Saves the channel with its videos and returns it as written.
+     *
+     * @throws ChannelIngestException if some partitions failed, with the channel as written and an error per
+     *                                partition
+     */
+    public Channel ingest(Channel channel) throws ChannelIngestException {
+        List<Video> videos = channel.getVideos();
+        if (videos == null || videos.size() <= partitionSize) {
+            return channelRepository.save(channel);
+        }
+
+        // Known before the partitions commit, so that the changes of their videos already carry the channel. The
+        // previous channels are restored for the videos of failed partitions, which still belong to them
+        Map<String, String> previousChannels = new HashMap<>();
+        for (Video video : videos) {
+            if (video.getId() != null) {
+                String previous = ownership.channelOfVideo(video.getId());
+                if (previous != null) {
+                    previousChannels.put(video.getId(), previous);
+                }
+                ownership.videoInChannel(video.getId(), channel.getId());
+            }
+        }
+
+        List<Future<List<Video>>> partitions = new ArrayList<>();
+        for (int from = 0; from < videos.size(); from += partitionSize) {
+            List<Video> partition = videos.subList(from, Math.min(from + partitionSize, videos.size()));
+            partitions.add(workers.submit(() -> transactionTemplate.execute(status -> videoRepository.saveAll(partition))));
+        }
+
+        List<Video> saved = new ArrayList<>(videos.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            try {
+                saved.addAll(partitions.get(i).get());
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                int from = i * partitionSize;
+                int to = Math.min(from + partitionSize, videos.size());
+                for (Video video : videos.subList(from, to)) {
+                    if (video.getId() != null) {
+                        ownership.videoInChannel(video.getId(), previousChannels.get(video.getId()));
+                    }
+                }
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                log.warn("Partition {} (videos {} to {}) of channel {} failed", i, from, to - 1, channel.getId(), cause);
+                // The cause may hold SQL and data, so it is only logged
+                errors.add("Partition " + i + " (videos " + from + " to " + (to - 1) + ") could not be saved");
+            }
+        }
+
+        // References, so that linking the videos updates their channel without loading them again
+        Channel linked = transactionTemplate.execute(status -> channelRepository.save(new Channel(channel.getId(), channel.getName(),
+                saved.stream().map(video -> videoRepository.getReferenceById(video.getId())).toList(),
+                channel.getCreatedTime(), channel.getDescription())));
+        Channel written = new Channel(linked.getId(), linked.getName(), saved, linked.getCreatedTime(), linked.getDescription());
+        if (!errors.isEmpty()) {
+            throw new ChannelIngestException(written, errors);
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,35 @@
+package aiss.videominer.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Span of the controller method handling a traced request, named after it (as in "ChannelController.findOne").
+ * It ends when the method returns, before its result is serialized.
+ */
+@Aspect
+@Component
+public class ControllerTracing {
+
+    private final Tracing tracing;
+
+    public ControllerTracing(Tracing tracing) {
+        this.tracing = tracing;
+    }
+
+    // The controllers of the servlet stack: those of the reactive profile return before their work is done
+    @Around("@within(org.springframework.web.bind.annotation.RestController) && within(aiss.videominer.controller.*)")
+    public Object trace(ProceedingJoinPoint call) throws Throwable {
+        String name = call.getSignature().getDeclaringType().getSimpleName() + "." + call.getSignature().getName();
+        try (Tracing.Phase phase = tracing.open("controller", name)) {
+            try {
+                return call.proceed();
+            } catch (Throwable e) {
+                phase.error(e);
+                throw e;
+            }
+        }
+    }
+}
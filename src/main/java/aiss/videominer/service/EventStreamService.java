@@ -0,0 +1,206 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-sent events for the change feed. Connections are asynchronous, so an idle subscriber holds no thread.
+ * Each subscriber has a bounded buffer drained by a small shared pool; when a slow subscriber's buffer is full,
+ * either its oldest events are dropped or it is disconnected (videominer.events.overflow). Clients resume with
+ * the standard Last-Event-ID header, which carries the change sequence.
+ */
+@Service
+public class EventStreamService {
+
+    public enum OverflowPolicy {
+        DROP, DISCONNECT
+    }
+
+    private final class Subscriber implements ChangeLog.Listener {
+        private final SseEmitter emitter;
+        private final String channelId;
+        private final Set<String> resources;
+        private final ArrayDeque<Change> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeat;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String channelId, Set<String> resources) {
+            this.emitter = emitter;
+            this.channelId = channelId;
+            this.resources = resources;
+        }
+
+        private boolean accepts(Change change) {
+            return (channelId == null || channelId.equals(change.channelId()))
+                    && (resources == null || resources.contains(change.resource()));
+        }
+
+        @Override
+        public void onChanges(List<Change> changes) {
+            boolean added = false;
+            synchronized (buffer) {
+                for (Change change : changes) {
+                    if (!accepts(change)) {
+                        continue;
+                    }
+                    if (buffer.size() == bufferSize) {
+                        if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                            disconnected.increment();
+                            close();
+                            return;
+                        }
+                        buffer.pollFirst();
+                        dropped.increment();
+                    }
+                    buffer.addLast(change);
+                    added = true;
+                }
+            }
+            if (added) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (heartbeat) {
+                    heartbeat = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                Change change;
+                while (!closed && (change = next()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.seq()))
+                            .name(change.operation().name().toLowerCase())
+                            .data(change, MediaType.APPLICATION_JSON));
+                    sent.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Events added after the last poll but before the flag was cleared
+            synchronized (buffer) {
+                if (!buffer.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private Change next() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                changeLog.unsubscribe(this);
+                subscribers.remove(this);
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+    }
+
+    private final ChangeLog changeLog;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public EventStreamService(ChangeLog changeLog,
+                              @Value("${videominer.events.buffer-size:256}") int bufferSize,
+                              @Value("${videominer.events.overflow:DROP}") OverflowPolicy overflowPolicy,
+                              @Value("${videominer.events.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${videominer.events.sender-threads:4}") int senderThreads,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.changeLog = changeLog;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMillis = timeoutMillis;
+        // A subscriber blocked on a slow client then holds no platform thread, so the pool needs no bound
+        this.senders = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(senderThreads);
+    }
+
+    /**
+     * Opens a stream of the changes after {@code lastEventId} (or from now on if null), optionally restricted
+     * to one channel and to some resources.
+     */
+    public SseEmitter subscribe(String channelId, Set<String> resources, Long lastEventId) throws ChangesExpiredException {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, channelId, resources);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        try {
+            changeLog.subscribe(lastEventId != null ? lastEventId : changeLog.lastSeq(), subscriber);
+        } catch (ChangesExpiredException | RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        // Disconnected by an overflow of the backlog, before the change log had registered it
+        if (subscriber.closed) {
+            changeLog.unsubscribe(subscriber);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${videominer.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat = true;
+            subscriber.schedule();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("subscribers", subscribers.size());
+        statistics.put("sent", sent.sum());
+        statistics.put("dropped", dropped.sum());
+        statistics.put("disconnected", disconnected.sum());
+        return statistics;
+    }
+}
@@ -0,0 +1,221 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant search of channel and video names. Each type has a BK-tree over the {@link Names normalized}
+ * names with the Levenshtein distance: by the triangle inequality, a query within distance k of a name can
+ * only be found under the children whose edge is within k of the distance to the current node, so a search
+ * with a small k visits a small part of the tree. The maximum distance is capped by videominer.fuzzy.max-distance.
+ * Kept up to date from the {@link ChangeLog}.
+ */
+@Service
+public class FuzzySearchService implements ChangeLog.Listener {
+
+    private record Match(String id, String key, int distance) {
+    }
+
+    private static final class Node {
+        private final String key;
+        private final Set<String> ids = new LinkedHashSet<>(1);
+        private Map<Integer, Node> children;
+
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class BkTree {
+        private Node root;
+        private final Map<String, String> keys = new HashMap<>();
+        private int nodes;
+        private int emptyNodes;
+
+        private void put(String id, String name) {
+            String key = Names.normalize(name);
+            String previous = keys.put(id, key);
+            if (key.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            insert(id, key);
+        }
+
+        private void remove(String id) {
+            String key = keys.remove(id);
+            if (key != null) {
+                unlink(id, key);
+            }
+        }
+
+        private void insert(String id, String key) {
+            if (root == null) {
+                root = new Node(key);
+                emptyNodes++;
+                nodes++;
+            }
+            Node node = root;
+            while (true) {
+                int distance = levenshtein(key, node.key);
+                if (distance == 0) {
+                    if (node.ids.isEmpty()) {
+                        emptyNodes--;
+                    }
+                    node.ids.add(id);
+                    return;
+                }
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    child = new Node(key);
+                    // Counted as empty until the id is added on the next iteration
+                    emptyNodes++;
+                    nodes++;
+                    node.children.put(distance, child);
+                }
+                node = child;
+            }
+        }
+
+        // Nodes route the searches, so removing a name only empties its node until most of the tree is empty
+        private void unlink(String id, String key) {
+            Node node = root;
+            while (node != null) {
+                int distance = levenshtein(key, node.key);
+                if (distance == 0) {
+                    node.ids.remove(id);
+                    if (node.ids.isEmpty()) {
+                        emptyNodes++;
+                    }
+                    break;
+                }
+                node = node.children == null ? null : node.children.get(distance);
+            }
+            if (emptyNodes * 2 > nodes) {
+                rebuild();
+            }
+        }
+
+        private void rebuild() {
+            root = null;
+            nodes = 0;
+            emptyNodes = 0;
+            keys.forEach(this::insert);
+        }
+
+        private List<Match> search(String query, int maxDistance) {
+            List<Match> matches = new ArrayList<>();
+            if (root == null) {
+                return matches;
+            }
+            String key = Names.normalize(query);
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = levenshtein(key, node.key);
+                if (distance <= maxDistance) {
+                    node.ids.forEach(id -> matches.add(new Match(id, node.key, distance)));
+                }
+                if (node.children != null) {
+                    for (int edge = Math.max(1, distance - maxDistance); edge <= distance + maxDistance; edge++) {
+                        Node child = node.children.get(edge);
+                        if (child != null) {
+                            pending.push(child);
+                        }
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+
+    private final int maxDistance;
+    private final Map<String, BkTree> trees = Map.of("channel", new BkTree(), "video", new BkTree());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FuzzySearchService(ChangeLog changeLog, @Value("${videominer.fuzzy.max-distance:2}") int maxDistance) {
+        this.maxDistance = maxDistance;
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Returns the ids of the channels or videos ("channel" or "video") whose name is within {@code distance} edits
+     * of the query, the closest first and then by name.
+     */
+    public List<String> search(String type, String query, Integer distance) {
+        int k = distance == null ? maxDistance : Math.max(0, Math.min(distance, maxDistance));
+        List<Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = trees.get(type).search(query, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::distance).thenComparing(Match::key).thenComparing(Match::id))
+                .map(Match::id)
+                .toList();
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : changes) {
+                BkTree tree = switch (change.resource()) {
+                    case "channels" -> trees.get("channel");
+                    case "videos" -> trees.get("video");
+                    default -> null;
+                };
+                if (tree == null) {
+                    continue;
+                }
+                String name = change.attribute(AttributeStaging.NAME);
+                if (change.operation() == Change.Operation.DELETED) {
+                    tree.remove(change.id());
+                } else if (name != null) {
+                    tree.put(change.id(), name);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,60 @@
+package aiss.videominer.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.internal.DefaultInitializeCollectionEventListener;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Span of each lazy collection loaded during a traced request (as in "load Channel.videos"), holding those of
+ * the statements that loaded it. It replaces Hibernate's listener and delegates to it, rather than following it,
+ * so that the span also ends when the loading fails.
+ */
+@Component
+public class LazyLoadTracing implements InitializeCollectionEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Tracing tracing;
+    private final InitializeCollectionEventListener loader = new DefaultInitializeCollectionEventListener();
+
+    public LazyLoadTracing(EntityManagerFactory entityManagerFactory, Tracing tracing) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tracing = tracing;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.setListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        try (Tracing.Phase phase = tracing.open("lazy-load", "load " + role(event.getCollection().getRole()))) {
+            phase.tag("owner.id", String.valueOf(event.getAffectedOwnerIdOrNull()));
+            try {
+                loader.onInitializeCollection(event);
+            } catch (RuntimeException e) {
+                phase.error(e);
+                throw e;
+            }
+        }
+    }
+
+    // "aiss.videominer.model.Channel.videos" -> "Channel.videos"
+    private static String role(String role) {
+        if (role == null) {
+            return "collection";
+        }
+        int property = role.lastIndexOf('.');
+        return property <= 0 ? role : role.substring(role.lastIndexOf('.', property - 1) + 1);
+    }
+}
@@ -0,0 +1,89 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.InvalidPatchException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7396) to the scalar columns of an entity with a single UPDATE statement that
+ * only sets the columns present in the patch. A null member clears the column.
+ */
+@Service
+public class MergePatchService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Validator validator;
+    private final ChangeLog changeLog;
+
+    public MergePatchService(Validator validator, ChangeLog changeLog) {
+        this.validator = validator;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Returns false if there is no entity with the given id.
+     *
+     * @param patchable names of the attributes that may be patched, which are also their JSON member names
+     */
+    @Transactional
+    public boolean apply(Class<?> entityClass, String id, Map<String, Object> patch, Set<String> patchable) throws InvalidPatchException {
+        validate(entityClass, patch, patchable);
+
+        String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+        if (patch.isEmpty()) {
+            return entityManager.find(entityClass, id) != null;
+        }
+
+        // Attribute names come from the patchable whitelist, so they can be safely inlined
+        List<String> assignments = new ArrayList<>();
+        for (String field : patch.keySet()) {
+            assignments.add("e." + field + " = :" + field);
+        }
+        Query update = entityManager.createQuery("update " + entityName + " e set " + String.join(", ", assignments) + " where e.id = :id");
+        patch.forEach(update::setParameter);
+        update.setParameter("id", id);
+        if (update.executeUpdate() == 0) {
+            return false;
+        }
+        // Bulk updates bypass the entity listeners
+        Object updated = entityManager.find(entityClass, id);
+        changeLog.recordAfterCommit(ChangeListener.resourceOf(entityClass), id, Change.Operation.UPDATED,
+                updated == null ? Map.of() : AttributeStaging.of(updated));
+        return true;
+    }
+
+    /**
+     * Checks the patch against the patchable attributes and the constraints of the entity.
+     */
+    public void validate(Class<?> entityClass, Map<String, Object> patch, Set<String> patchable) throws InvalidPatchException {
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, Object> member : patch.entrySet()) {
+            String field = member.getKey();
+            Object value = member.getValue();
+            if (!patchable.contains(field)) {
+                errors.add("Field '" + field + "' cannot be patched");
+            } else if (value != null && !(value instanceof String)) {
+                errors.add("Field '" + field + "' must be a string");
+            } else {
+                for (ConstraintViolation<?> violation : validator.validateValue(entityClass, field, value)) {
+                    errors.add(violation.getMessage());
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors);
+        }
+    }
+}
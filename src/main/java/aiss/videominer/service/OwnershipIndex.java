@@ -0,0 +1,87 @@
+package aiss.videominer.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Parent of each video (its channel) and of each comment and caption (its video). The model only maps these
+ * relationships from the parent side, so the index is fed from the collection writes (see OwnershipListener).
+ */
+@Service
+public class OwnershipIndex {
+
+    /**
+     * Notified when a video changes channel, in the thread (and transaction) that wrote the collection. The
+     * channel is null when the video no longer belongs to any.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onVideoMoved(String videoId, String channelId);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, String> videoChannel = new ConcurrentHashMap<>();
+    private final Map<String, String> commentVideo = new ConcurrentHashMap<>();
+    private final Map<String, String> captionVideo = new ConcurrentHashMap<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Places the video in the channel, or out of any channel if it is null.
+     */
+    public void videoInChannel(String videoId, String channelId) {
+        String previous = channelId == null ? videoChannel.remove(videoId) : videoChannel.put(videoId, channelId);
+        if (!Objects.equals(previous, channelId)) {
+            listeners.forEach(listener -> listener.onVideoMoved(videoId, channelId));
+        }
+    }
+
+    public void commentInVideo(String commentId, String videoId) {
+        commentVideo.put(commentId, videoId);
+    }
+
+    public void captionInVideo(String captionId, String videoId) {
+        captionVideo.put(captionId, videoId);
+    }
+
+    public String channelOfVideo(String videoId) {
+        return videoId == null ? null : videoChannel.get(videoId);
+    }
+
+    public String videoOfComment(String commentId) {
+        return commentVideo.get(commentId);
+    }
+
+    public String videoOfCaption(String captionId) {
+        return captionVideo.get(captionId);
+    }
+
+    /**
+     * Channel the entity of the given resource belongs to, or null if it is unknown.
+     */
+    public String channelOf(String resource, String id) {
+        return switch (resource) {
+            case "channels" -> id;
+            case "videos" -> channelOfVideo(id);
+            case "comments" -> channelOfVideo(videoOfComment(id));
+            case "captions" -> channelOfVideo(videoOfCaption(id));
+            default -> null;
+        };
+    }
+
+    public void remove(String resource, String id) {
+        switch (resource) {
+            case "videos" -> videoChannel.remove(id);
+            case "comments" -> commentVideo.remove(id);
+            case "captions" -> captionVideo.remove(id);
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.Video;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Feeds the {@link OwnershipIndex} with the elements of every channel and video collection that Hibernate
+ * writes, which covers POST and PUT of whole graphs.
+ */
+@Component
+public class OwnershipListener implements PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final OwnershipIndex ownership;
+
+    public OwnershipListener(EntityManagerFactory entityManagerFactory, OwnershipIndex ownership) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.ownership = ownership;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        index(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        index(event);
+    }
+
+    private void index(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (!(event.getCollection() instanceof Collection<?> elements)) {
+            return;
+        }
+        for (Object element : elements) {
+            if (owner instanceof Channel channel && element instanceof Video video) {
+                ownership.videoInChannel(video.getId(), channel.getId());
+            } else if (owner instanceof Video video && element instanceof Comment comment) {
+                ownership.commentInVideo(comment.getId(), video.getId());
+            } else if (owner instanceof Video video && element instanceof Caption caption) {
+                ownership.captionInVideo(caption.getId(), video.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.StatementCaptureDisabledException;
+import aiss.videominer.exception.UnsupportedQueryException;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.beans.Introspector;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query plans of the repository query methods. The method is run with the given arguments in a read-only
+ * transaction that is rolled back, bypassing the second-level and query caches so that its statements do run. The
+ * statements it executes are captured (see {@link StatementCapture}) and each query is explained by H2 with the
+ * same parameters. Table scans of tables with at least
+ * videominer.explain.large-table-rows rows are flagged, since they are the ones an index would avoid.
+ */
+@Service
+public class QueryPlanService {
+
+    public record Plan(String sql, List<Object> parameters, String plan, List<String> largeTableScans) {
+    }
+
+    public record Explanation(String repository, String method, List<Plan> statements) {
+    }
+
+    // Only methods that read, so that explaining never writes
+    private static final Set<String> QUERY_PREFIXES = Set.of("find", "get", "read", "query", "search", "count", "exists");
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* (\\w+)\\.(\\w+)\\.tableScan \\*/");
+    private static final String ROW_COUNT = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+
+    private final ApplicationContext context;
+    private final DataSource dataSource;
+    private final TransactionTemplate readOnly;
+    private final long largeTableRows;
+    private final boolean capturing;
+    private final ConversionService conversion = DefaultConversionService.getSharedInstance();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Statements are captured by TimedDataSource, which is only installed with the slow-query log
+    public QueryPlanService(ApplicationContext context, DataSource dataSource, PlatformTransactionManager transactionManager,
+                            @Value("${videominer.explain.large-table-rows:1000}") long largeTableRows,
+                            @Value("${videominer.slow-query.enabled:true}") boolean capturing) {
+        this.context = context;
+        this.dataSource = dataSource;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.largeTableRows = largeTableRows;
+        this.capturing = capturing;
+    }
+
+    /**
+     * Runs the query method of the repository (by its simple name, as in "VideoRepository") with the given
+     * arguments, converted to the parameter types, plus a page for its Pageable parameter if any, and explains the
+     * statements it executed. With {@code analyze} the queries are run again by EXPLAIN ANALYZE, whose plans
+     * include the rows scanned.
+     *
+     * @throws StatementCaptureDisabledException if statements are not timed (videominer.slow-query.enabled=false)
+     */
+    public Explanation explain(String repository, String methodName, List<String> args, int page, int size,
+                               boolean analyze) throws UnsupportedQueryException, StatementCaptureDisabledException {
+        if (!capturing) {
+            throw new StatementCaptureDisabledException();
+        }
+        Object bean = repository(repository);
+        Method method = method(bean, repository, methodName, args.size());
+        Object[] values = arguments(method, args, page, size);
+
+        List<StatementCapture.Statement> statements = readOnly.execute(status -> {
+            status.setRollbackOnly();
+            // EntityManager.find() takes its cache mode from these properties rather than from the Session's
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            try {
+                return StatementCapture.during(() -> method.invoke(bean, values));
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getCause());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        List<Plan> plans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (StatementCapture.Statement statement : statements) {
+                plans.add(plan(connection, statement, analyze));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Explanation(repository, methodName, plans);
+    }
+
+    private Object repository(String name) throws UnsupportedQueryException {
+        String beanName = Introspector.decapitalize(name);
+        if (!context.containsBean(beanName) || !(context.getBean(beanName) instanceof Repository<?, ?> bean)) {
+            throw new UnsupportedQueryException();
+        }
+        return bean;
+    }
+
+    private static Method method(Object bean, String repository, String name, int arguments) throws UnsupportedQueryException {
+        if (QUERY_PREFIXES.stream().noneMatch(name::startsWith)) {
+            throw new UnsupportedQueryException();
+        }
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(bean)) {
+            if (!type.getSimpleName().equals(repository)) {
+                continue;
+            }
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(name) && valueParameters(method) == arguments) {
+                    return method;
+                }
+            }
+        }
+        throw new UnsupportedQueryException();
+    }
+
+    private static long valueParameters(Method method) {
+        long count = 0;
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!Pageable.class.isAssignableFrom(type) && !Sort.class.isAssignableFrom(type)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Object[] arguments(Method method, List<String> args, int page, int size) throws UnsupportedQueryException {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] values = new Object[types.length];
+        int next = 0;
+        try {
+            for (int i = 0; i < types.length; i++) {
+                if (Pageable.class.isAssignableFrom(types[i])) {
+                    values[i] = PageRequest.of(page, size);
+                } else if (Sort.class.isAssignableFrom(types[i])) {
+                    values[i] = Sort.unsorted();
+                } else {
+                    values[i] = conversion.convert(args.get(next++), types[i]);
+                }
+            }
+        } catch (ConversionException | IllegalArgumentException e) {
+            // An argument that cannot be converted, or an invalid page
+            throw new UnsupportedQueryException();
+        }
+        return values;
+    }
+
+    private Plan plan(Connection connection, StatementCapture.Statement statement, boolean analyze) throws SQLException {
+        if (!statement.sql().trim().regionMatches(true, 0, "select", 0, 6)) {
+            return new Plan(statement.sql(), statement.parameters(), null, List.of());
+        }
+        String plan;
+        try (PreparedStatement explain = connection.prepareStatement((analyze ? "EXPLAIN ANALYZE " : "EXPLAIN ") + statement.sql())) {
+            for (int i = 0; i < statement.parameters().size(); i++) {
+                explain.setObject(i + 1, statement.parameters().get(i));
+            }
+            try (ResultSet result = explain.executeQuery()) {
+                result.next();
+                plan = result.getString(1);
+            }
+        }
+        List<String> largeTableScans = new ArrayList<>();
+        Matcher scan = TABLE_SCAN.matcher(plan);
+        while (scan.find()) {
+            long rows = rows(connection, scan.group(1), scan.group(2));
+            if (rows >= largeTableRows) {
+                largeTableScans.add(scan.group(2) + " (" + rows + " rows)");
+            }
+        }
+        return new Plan(statement.sql(), statement.parameters(), plan, largeTableScans);
+    }
+
+    private static long rows(Connection connection, String schema, String table) throws SQLException {
+        try (PreparedStatement count = connection.prepareStatement(ROW_COUNT)) {
+            count.setString(1, schema);
+            count.setString(2, table);
+            try (ResultSet result = count.executeQuery()) {
+                return result.next() ? result.getLong(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.InvalidGraphException;
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+import aiss.videominer.model.reactive.CaptionRow;
+import aiss.videominer.model.reactive.ChannelRow;
+import aiss.videominer.model.reactive.CommentRow;
+import aiss.videominer.model.reactive.UserRow;
+import aiss.videominer.model.reactive.VideoRow;
+import aiss.videominer.repository.reactive.CaptionRowRepository;
+import aiss.videominer.repository.reactive.ChannelRowRepository;
+import aiss.videominer.repository.reactive.CommentRowRepository;
+import aiss.videominer.repository.reactive.UserRowRepository;
+import aiss.videominer.repository.reactive.VideoRowRepository;
+import jakarta.validation.Validator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+/**
+ * Channel and video graphs of the reactive profile, in the JSON shape of the JPA entities. A batch of rows is
+ * completed with one query per table (videos, then their comments, authors and captions), never one per row.
+ * Writes run in a reactive transaction and, unlike JPA ones, are not seen by the change log nor by the indexes it
+ * feeds. A write replaces the stored graph of the entity, and any row of the written graph stored elsewhere.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveGraphService {
+
+    private final ChannelRowRepository channels;
+    private final VideoRowRepository videos;
+    private final CommentRowRepository comments;
+    private final CaptionRowRepository captions;
+    private final UserRowRepository users;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactions;
+    private final Validator validator;
+    private final MergePatchService mergePatch;
+
+    public ReactiveGraphService(ChannelRowRepository channels, VideoRowRepository videos, CommentRowRepository comments,
+                                CaptionRowRepository captions, UserRowRepository users, R2dbcEntityTemplate template,
+                                TransactionalOperator transactions, Validator validator, MergePatchService mergePatch) {
+        this.channels = channels;
+        this.videos = videos;
+        this.comments = comments;
+        this.captions = captions;
+        this.users = users;
+        this.template = template;
+        this.transactions = transactions;
+        this.validator = validator;
+        this.mergePatch = mergePatch;
+    }
+
+    /**
+     * The channels of the rows with their videos, in the order of the rows.
+     */
+    public Flux<Channel> channels(List<ChannelRow> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        return videos.findByChannelIdIn(rows.stream().map(ChannelRow::id).toList())
+                .collectList()
+                .flatMap(videoRows -> videos(videoRows).collectList().map(graphs -> {
+                    Map<String, List<Video>> byChannel = new HashMap<>();
+                    for (int i = 0; i < videoRows.size(); i++) {
+                        byChannel.computeIfAbsent(videoRows.get(i).channelId(), id -> new ArrayList<>()).add(graphs.get(i));
+                    }
+                    return byChannel;
+                }))
+                .flatMapMany(byChannel -> Flux.fromIterable(rows).map(row -> new Channel(row.id(), row.name(),
+                        byChannel.getOrDefault(row.id(), new ArrayList<>()), row.createdTime(), row.description())));
+    }
+
+    /**
+     * The videos of the rows with their comments and captions, in the order of the rows.
+     */
+    public Flux<Video> videos(List<VideoRow> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> ids = rows.stream().map(VideoRow::id).toList();
+        Mono<Map<String, List<Comment>>> commentsByVideo = comments.findByVideoIdIn(ids)
+                .collectList()
+                .flatMap(commentRows -> authors(commentRows).map(authors -> commentRows.stream().collect(Collectors.groupingBy(
+                        CommentRow::videoId, Collectors.mapping(row -> comment(row, authors), Collectors.toList())))));
+        Mono<Map<String, List<Caption>>> captionsByVideo = captions.findByVideoIdIn(ids)
+                .collect(Collectors.groupingBy(CaptionRow::videoId,
+                        Collectors.mapping(ReactiveGraphService::caption, Collectors.toList())));
+        return Mono.zip(commentsByVideo, captionsByVideo).flatMapMany(found -> Flux.fromIterable(rows).map(row -> new Video(
+                row.id(), row.name(), row.description(), row.releaseTime(),
+                found.getT1().getOrDefault(row.id(), new ArrayList<>()),
+                found.getT2().getOrDefault(row.id(), new ArrayList<>()))));
+    }
+
+    /**
+     * The comments of the rows with their authors, in the order of the rows.
+     */
+    public Flux<Comment> comments(List<CommentRow> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        return authors(rows).flatMapMany(authors -> Flux.fromIterable(rows).map(row -> comment(row, authors)));
+    }
+
+    public static Caption caption(CaptionRow row) {
+        return new Caption(row.id(), row.name(), row.language());
+    }
+
+    /**
+     * Fails with an {@link InvalidGraphException} if an entity of the graph (or of the collection of graphs) breaks
+     * a constraint of its model. The models do not cascade validation into their collections and R2DBC, unlike
+     * Hibernate, validates nothing it writes, so the whole graph is checked before the first write.
+     */
+    public Mono<Void> validate(Object graph) {
+        List<String> errors = new ArrayList<>();
+        collectViolations(graph, errors);
+        return errors.isEmpty() ? Mono.empty() : Mono.error(new InvalidGraphException(errors));
+    }
+
+    /**
+     * Saves the channel with all its videos, comments and captions in one transaction, replacing the channel with
+     * the same id if any, and returns it as stored.
+     */
+    public Mono<Channel> create(Channel channel) {
+        return validate(channel)
+                .then(replaceChannel(channel))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Replaces the channel with the given id as {@link #create(Channel)} does. Returns false if it did not exist.
+     */
+    public Mono<Boolean> updateChannel(String id, Channel channel) {
+        Channel replacement = new Channel(id, channel.getName(), channel.getVideos(), channel.getCreatedTime(), channel.getDescription());
+        return validate(replacement)
+                .then(channels.existsById(id))
+                .flatMap(exists -> !exists ? Mono.just(false) : replaceChannel(replacement).thenReturn(true))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Saves the video with its comments and captions in one transaction, replacing the video with the same id if
+     * any, which keeps its channel, and returns it as stored.
+     */
+    public Mono<Video> createVideo(Video video) {
+        return validate(video)
+                .then(videos.findById(video.getId()).map(row -> Optional.ofNullable(row.channelId())).defaultIfEmpty(Optional.empty()))
+                .flatMap(channelId -> replaceVideo(video, channelId.orElse(null)))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Replaces the video with the given id as {@link #createVideo(Video)} does. Returns false if it did not exist.
+     */
+    public Mono<Boolean> updateVideo(String id, Video video) {
+        Video replacement = new Video(id, video.getName(), video.getDescription(), video.getReleaseTime(), video.getComments(), video.getCaptions());
+        return validate(replacement)
+                .then(videos.findById(id))
+                .flatMap(row -> replaceVideo(replacement, row.channelId()).thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Saves the comment with its author, replacing the comment with the same id if any, which keeps its video, and
+     * returns it as stored.
+     */
+    public Mono<Comment> createComment(Comment comment) {
+        return validate(comment)
+                .then(comments.findById(comment.getId()).map(row -> Optional.ofNullable(row.videoId())).defaultIfEmpty(Optional.empty()))
+                .flatMap(videoId -> replaceComment(comment, videoId.orElse(null)))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Replaces the comment with the given id as {@link #createComment(Comment)} does. Returns false if it did not
+     * exist.
+     */
+    public Mono<Boolean> updateComment(String id, Comment comment) {
+        Comment replacement = new Comment(id, comment.getText(), comment.getCreatedOn(), comment.getAuthor());
+        return validate(replacement)
+                .then(comments.findById(id))
+                .flatMap(row -> replaceComment(replacement, row.videoId()).thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Saves the caption, replacing the caption with the same id if any, which keeps its video, and returns it as
+     * stored.
+     */
+    public Mono<Caption> createCaption(Caption caption) {
+        return validate(caption)
+                .then(captions.findById(caption.getId()).map(row -> Optional.ofNullable(row.videoId())).defaultIfEmpty(Optional.empty()))
+                .flatMap(videoId -> replaceCaption(caption, videoId.orElse(null)))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Replaces the caption with the given id as {@link #createCaption(Caption)} does. Returns false if it did not
+     * exist.
+     */
+    public Mono<Boolean> updateCaption(String id, Caption caption) {
+        Caption replacement = new Caption(id, caption.getName(), caption.getLanguage());
+        return validate(replacement)
+                .then(captions.findById(id))
+                .flatMap(row -> replaceCaption(replacement, row.videoId()).thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Adds to the video, in one transaction, the comments (and their authors) whose id does not exist yet, and
+     * returns the ids of the added ones. Empty if the video does not exist.
+     */
+    public Mono<List<String>> appendComments(String videoId, List<Comment> list) {
+        Map<String, Comment> byId = new LinkedHashMap<>();
+        for (Comment comment : list) {
+            byId.putIfAbsent(comment.getId(), comment);
+        }
+        return validate(list)
+                .then(videos.existsById(videoId))
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> comments.findAllById(byId.keySet()).map(CommentRow::id).collect(Collectors.toSet()))
+                .flatMap(existing -> Flux.fromIterable(byId.values())
+                        .filter(comment -> !existing.contains(comment.getId()))
+                        .concatMap(comment -> insertComment(comment, videoId))
+                        .map(CommentRow::id)
+                        .collectList())
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Applies a JSON Merge Patch to the scalar columns of a row with a single UPDATE, after checking it as
+     * {@link MergePatchService} does against the model of the row. Returns false if there is no row with the id.
+     *
+     * @param patchable names of the attributes that may be patched, which are also their row properties
+     */
+    public Mono<Boolean> patch(Class<?> entityClass, Class<?> rowClass, String id, Map<String, Object> patch, Set<String> patchable) {
+        Query byId = Query.query(where("id").is(id));
+        return Mono.fromCallable(() -> {
+            mergePatch.validate(entityClass, patch, patchable);
+            return patch;
+        }).flatMap(valid -> {
+            if (valid.isEmpty()) {
+                return template.exists(byId, rowClass);
+            }
+            Update update = null;
+            for (Map.Entry<String, Object> member : valid.entrySet()) {
+                update = update == null ? Update.update(member.getKey(), member.getValue()) : update.set(member.getKey(), member.getValue());
+            }
+            return template.update(byId, update, rowClass).map(updated -> updated > 0);
+        });
+    }
+
+    /**
+     * Deletes the channel with its videos. Returns false if it did not exist.
+     */
+    public Mono<Boolean> deleteChannel(String id) {
+        return channels.existsById(id).flatMap(exists -> !exists ? Mono.just(false)
+                : videos.findByChannelId(id).map(VideoRow::id).collectList()
+                        .flatMap(this::deleteVideos)
+                        .then(channels.deleteById(id))
+                        .thenReturn(true))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Deletes the video with its comments, their authors, and its captions. Returns false if it did not exist.
+     */
+    public Mono<Boolean> deleteVideo(String id) {
+        return videos.existsById(id).flatMap(exists -> !exists ? Mono.just(false)
+                : deleteVideos(List.of(id)).thenReturn(true))
+                .as(transactions::transactional);
+    }
+
+    /**
+     * Deletes the comment with its author. Returns false if it did not exist.
+     */
+    public Mono<Boolean> deleteComment(String id) {
+        return comments.findById(id)
+                .flatMap(row -> comments.deleteById(id)
+                        .then(row.authorId() == null ? Mono.<Void>empty() : users.deleteById(row.authorId()))
+                        .thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactions::transactional);
+    }
+
+    public Mono<Boolean> deleteCaption(String id) {
+        return captions.existsById(id).flatMap(exists -> !exists ? Mono.just(false)
+                : captions.deleteById(id).thenReturn(true));
+    }
+
+    private Mono<Channel> replaceChannel(Channel channel) {
+        Mono<Void> insert = template.insert(new ChannelRow(channel.getId(), channel.getName(), channel.getDescription(),
+                        channel.getCreatedTime()))
+                .thenMany(Flux.fromIterable(orEmpty(channel.getVideos())).concatMap(video -> insertVideo(video, channel.getId())))
+                .then();
+        return deleteChannel(channel.getId())
+                .then(deleteStored(orEmpty(channel.getVideos())))
+                .then(insert)
+                .then(channels.findById(channel.getId()))
+                .flatMap(row -> channels(List.of(row)).next());
+    }
+
+    private Mono<Video> replaceVideo(Video video, String channelId) {
+        return deleteStored(List.of(video))
+                .then(insertVideo(video, channelId))
+                .then(videos.findById(video.getId()))
+                .flatMap(row -> videos(List.of(row)).next());
+    }
+
+    private Mono<Comment> replaceComment(Comment comment, String videoId) {
+        return deleteComments(List.of(comment.getId()))
+                .then(insertComment(comment, videoId))
+                .flatMap(row -> comments(List.of(row)).next());
+    }
+
+    private Mono<Caption> replaceCaption(Caption caption, String videoId) {
+        return captions.deleteById(caption.getId())
+                .then(template.insert(new CaptionRow(caption.getId(), caption.getName(), caption.getLanguage(), videoId)))
+                .map(ReactiveGraphService::caption);
+    }
+
+    // The rows of the videos, and of their comments and captions, wherever they are stored
+    private Mono<Void> deleteStored(List<Video> graphs) {
+        List<String> commentIds = graphs.stream().flatMap(video -> orEmpty(video.getComments()).stream()).map(Comment::getId).toList();
+        List<String> captionIds = graphs.stream().flatMap(video -> orEmpty(video.getCaptions()).stream()).map(Caption::getId).toList();
+        return deleteVideos(graphs.stream().map(Video::getId).toList())
+                .then(deleteComments(commentIds))
+                .then(captionIds.isEmpty() ? Mono.<Void>empty() : captions.deleteAllById(captionIds));
+    }
+
+    private Mono<Void> deleteComments(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return comments.findAllById(ids).map(CommentRow::authorId).filter(Objects::nonNull).collectList()
+                .flatMap(authorIds -> comments.deleteAllById(ids)
+                        .then(authorIds.isEmpty() ? Mono.<Void>empty() : users.deleteAllById(authorIds)));
+    }
+
+    // Comments go before their authors and videos, which they reference
+    private Mono<Void> deleteVideos(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return comments.findByVideoIdIn(ids).map(CommentRow::authorId).filter(Objects::nonNull).collectList()
+                .flatMap(authorIds -> captions.deleteByVideoIdIn(ids)
+                        .then(comments.deleteByVideoIdIn(ids))
+                        .then(authorIds.isEmpty() ? Mono.<Void>empty() : users.deleteAllById(authorIds)))
+                .then(videos.deleteAllById(ids));
+    }
+
+    private Mono<Void> insertVideo(Video video, String channelId) {
+        return template.insert(new VideoRow(video.getId(), video.getName(), video.getDescription(), video.getReleaseTime(),
+                        channelId))
+                .thenMany(Flux.fromIterable(orEmpty(video.getComments())).concatMap(comment -> insertComment(comment, video.getId())))
+                .thenMany(Flux.fromIterable(orEmpty(video.getCaptions())).concatMap(caption -> template.insert(new CaptionRow(
+                        caption.getId(), caption.getName(), caption.getLanguage(), video.getId()))))
+                .then();
+    }
+
+    private Mono<CommentRow> insertComment(Comment comment, String videoId) {
+        User author = comment.getAuthor();
+        return users.nextId()
+                .flatMap(id -> template.insert(new UserRow(id, author.getName(), author.getUser_link(), author.getPicture_link())))
+                .flatMap(user -> template.insert(new CommentRow(comment.getId(), comment.getText(), comment.getCreatedOn(),
+                        user.id(), videoId)));
+    }
+
+    private Mono<Map<Long, User>> authors(List<CommentRow> rows) {
+        List<Long> ids = rows.stream().map(CommentRow::authorId).filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return users.findAllById(ids)
+                .map(row -> new User(row.id(), row.name(), row.userLink(), row.pictureLink()))
+                .collectMap(User::getId, Function.identity());
+    }
+
+    private void collectViolations(Object entity, List<String> errors) {
+        if (entity instanceof Collection<?> elements) {
+            elements.forEach(element -> collectViolations(element, errors));
+            return;
+        }
+        if (entity == null) {
+            errors.add("Entities cannot be null");
+            return;
+        }
+        validator.validate(entity).forEach(violation -> errors.add(violation.getMessage()));
+        String id = entity instanceof Channel channel ? channel.getId()
+                : entity instanceof Video video ? video.getId()
+                : entity instanceof Comment comment ? comment.getId()
+                : entity instanceof Caption caption ? caption.getId()
+                : "";
+        if (id == null) {
+            errors.add(entity.getClass().getSimpleName() + " id cannot be null");
+        }
+        if (entity instanceof Channel channel) {
+            orEmpty(channel.getVideos()).forEach(video -> collectViolations(video, errors));
+        } else if (entity instanceof Video video) {
+            orEmpty(video.getComments()).forEach(comment -> collectViolations(comment, errors));
+            orEmpty(video.getCaptions()).forEach(caption -> collectViolations(caption, errors));
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private static Comment comment(CommentRow row, Map<Long, User> authors) {
+        return new Comment(row.id(), row.text(), row.createdOn(), row.authorId() == null ? null : authors.get(row.authorId()));
+    }
+}
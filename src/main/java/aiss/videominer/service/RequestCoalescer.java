@@ -0,0 +1,133 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight execution: concurrent calls with the same key share the result of the first one (the leader)
+ * instead of running the same computation again. A caller that waits longer than the key's timeout stops
+ * waiting and computes the value on its own. Callers that must not see a value computed before a write include
+ * the current {@link #generation()} in their key.
+ */
+@Service
+public class RequestCoalescer {
+
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        T load() throws E;
+    }
+
+    private static final class InFlight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final long deadline;
+
+        private InFlight(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Duration defaultTimeout;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waiting = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RequestCoalescer(@Value("${videominer.coalescing.timeout-ms:5000}") long timeoutMillis) {
+        this.defaultTimeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Starts a new generation after a write, so later calls keyed by the generation no longer join the
+     * computations that were already in flight.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public <T, E extends Exception> T execute(String key, Loader<T, E> loader) throws E {
+        return execute(key, defaultTimeout, loader);
+    }
+
+    /**
+     * Runs the loader, or waits for the identical computation already in flight for this key.
+     * The timeout is fixed by the leader: followers never wait beyond the leader's start plus timeout.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T execute(String key, Duration timeout, Loader<T, E> loader) throws E {
+        InFlight mine = new InFlight(System.nanoTime() + timeout.toNanos());
+        InFlight leader = inFlight.putIfAbsent(key, mine);
+        if (leader == null) {
+            executions.increment();
+            try {
+                T value = loader.load();
+                mine.result.complete(value);
+                return value;
+            } catch (Throwable t) {
+                mine.result.completeExceptionally(t);
+                throw t;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        try {
+            T value = (T) await(leader);
+            collapsed.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.load();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.load();
+        } catch (ExecutionException e) {
+            collapsed.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E) cause;
+        }
+    }
+
+    private Object await(InFlight leader) throws InterruptedException, ExecutionException, TimeoutException {
+        waiting.increment();
+        try {
+            return leader.result.get(Math.max(0, leader.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrement();
+        }
+    }
+
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("executions", executions.sum());
+        statistics.put("collapsed", collapsed.sum());
+        statistics.put("timeouts", timeouts.sum());
+        statistics.put("inFlight", (long) inFlight.size());
+        statistics.put("waiting", waiting.sum());
+        statistics.put("generation", generation.get());
+        return statistics;
+    }
+}
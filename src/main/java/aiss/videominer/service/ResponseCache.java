@@ -0,0 +1,121 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of rendered response bodies keyed by (resource, id, fields, format). The cache is bounded by the total
+ * size of the stored bodies and evicts the least recently used entries first. Bodies can be kept in direct
+ * buffers so that large documents stay out of the Java heap.
+ */
+@Service
+public class ResponseCache {
+
+    public record Key(String resource, String id, String fields, String format) {
+    }
+
+    public record Entry(String contentType, ByteBuffer body) {
+
+        /**
+         * Read-only view with its own position, so concurrent readers don't interfere with each other.
+         */
+        public ByteBuffer content() {
+            return body.asReadOnlyBuffer();
+        }
+    }
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private final boolean offHeap;
+
+    private long bytes;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ResponseCache(@Value("${videominer.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${videominer.response-cache.off-heap:false}") boolean offHeap) {
+        this.maxBytes = maxBytes;
+        this.offHeap = offHeap;
+    }
+
+    public synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Current generation, to be passed to {@link #put}. Any invalidation in between discards the put, so a body
+     * rendered before a write never gets stored after it.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(Key key, String contentType, byte[] body, long renderedAt) {
+        if (renderedAt != generation || body.length > maxBytes) {
+            return;
+        }
+        ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(body.length) : ByteBuffer.allocate(body.length);
+        buffer.put(body).flip();
+        Entry previous = entries.put(key, new Entry(contentType, buffer));
+        if (previous != null) {
+            bytes -= previous.body().capacity();
+        }
+        bytes += body.length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body().capacity();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Invalidates the given resource and every entry of the other resources. Documents are nested (a channel
+     * embeds its videos, a video its comments and captions), so a write can change any of them.
+     */
+    public synchronized void invalidate(String resource, String id) {
+        generation++;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            Key key = entry.getKey();
+            if (!key.resource().equals(resource) || id == null || Objects.equals(key.id(), id)) {
+                bytes -= entry.getValue().body().capacity();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", entries.size());
+        statistics.put("bytes", bytes);
+        statistics.put("maxBytes", maxBytes);
+        statistics.put("offHeap", offHeap);
+        statistics.put("hits", hits);
+        statistics.put("misses", misses);
+        statistics.put("evictions", evictions);
+        return statistics;
+    }
+}
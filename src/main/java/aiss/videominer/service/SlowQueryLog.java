@@ -0,0 +1,123 @@
+package aiss.videominer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Timing of the SQL statements, recorded by {@link TimedDataSource}. Statements are grouped by fingerprint (the
+ * SQL with its literals and IN lists replaced by placeholders), whose totals give the most expensive ones, and
+ * those slower than videominer.slow-query.threshold-ms are logged with their duration, row count and the
+ * controller method that ran them.
+ */
+@Service
+public class SlowQueryLog {
+
+    public record Fingerprint(String sql, long executions, long rows, double totalMs, double maxMs) {
+    }
+
+    private static final class Totals {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Statements of fingerprints beyond max-fingerprints are counted under this one
+    static final String OTHER = "(other)";
+
+    private final long thresholdNanos;
+    private final int maxFingerprints;
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+    // Prepared statements repeat the same SQL, so its fingerprint is only computed once
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(@Value("${videominer.slow-query.threshold-ms:100}") long thresholdMillis,
+                        @Value("${videominer.slow-query.max-fingerprints:1000}") int maxFingerprints) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * Records a statement that took the given time, and logs it if it was slow. Rows are those returned by a query
+     * or changed by an update, -1 if unknown.
+     */
+    public void record(String sql, long nanos, long rows) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = fingerprint(sql);
+            if (fingerprints.size() < maxFingerprints * 4) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        Totals total = totals.get(fingerprint);
+        if (total == null) {
+            total = totals.size() < maxFingerprints
+                    ? totals.computeIfAbsent(fingerprint, key -> new Totals())
+                    : totals.computeIfAbsent(OTHER, key -> new Totals());
+        }
+        total.executions.increment();
+        total.nanos.add(nanos);
+        total.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (rows > 0) {
+            total.rows.add(rows);
+        }
+        if (nanos >= thresholdNanos) {
+            log.warn("slow query durationMs={} rows={} origin={} fingerprint=\"{}\"",
+                    String.format("%.3f", nanos / 1e6), rows, origin(), fingerprint);
+        }
+    }
+
+    /**
+     * Returns the fingerprints that took the most time in total, the most expensive first.
+     */
+    public List<Fingerprint> top(int limit) {
+        return totals.entrySet().stream()
+                .map(e -> new Fingerprint(e.getKey(), e.getValue().executions.sum(), e.getValue().rows.sum(),
+                        e.getValue().nanos.sum() / 1e6, e.getValue().maxNanos.get() / 1e6))
+                .sorted(Comparator.comparingDouble(Fingerprint::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        totals.clear();
+    }
+
+    static String fingerprint(String sql) {
+        String fingerprint = STRING.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("(?...)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    // Controller method handling the current request, or the thread name outside requests
+    private static String origin() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object handler = request == null ? null
+                : request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return Thread.currentThread().getName();
+    }
+}
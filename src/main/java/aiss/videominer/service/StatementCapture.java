@@ -0,0 +1,50 @@
+package aiss.videominer.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+/**
+ * Statements executed by the current thread while {@link #during} runs, with their parameters, as seen by
+ * {@link TimedDataSource}. Outside it statements are not captured and their parameters are not copied.
+ */
+public final class StatementCapture {
+
+    public record Statement(String sql, List<Object> parameters) {
+    }
+
+    private static final ThreadLocal<List<Statement>> CAPTURED = new ThreadLocal<>();
+
+    private StatementCapture() {
+    }
+
+    /**
+     * Runs the action, returning the statements it executed.
+     */
+    public static List<Statement> during(Callable<?> action) throws Exception {
+        List<Statement> previous = CAPTURED.get();
+        List<Statement> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.call();
+        } finally {
+            CAPTURED.set(previous);
+        }
+        return Collections.unmodifiableList(captured);
+    }
+
+    static boolean active() {
+        return CAPTURED.get() != null;
+    }
+
+    // Parameters by their 1-based index
+    static void add(String sql, Map<Integer, Object> parameters) {
+        List<Statement> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(new Statement(sql, new ArrayList<>(new TreeMap<>(parameters).values())));
+        }
+    }
+}
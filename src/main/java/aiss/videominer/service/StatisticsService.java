@@ -0,0 +1,217 @@
+package aiss.videominer.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregate statistics of each channel and video, kept up to date from the {@link ChangeLog} so that reading
+ * them is O(1). Counts are exact; distinct commenters are estimated with a {@link HyperLogLog}, which cannot
+ * forget, so commenters of deleted comments are still counted. Comments and captions are attributed to the
+ * video (and channel) they were created in, as recorded by the {@link OwnershipIndex}. Videos are counted in the
+ * channel the index last placed them in, once the transaction that moved them commits, so a video created on its own
+ * and later added to a channel is counted too.
+ */
+@Service
+public class StatisticsService implements ChangeLog.Listener, OwnershipIndex.Listener {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Stats(Long videos, long comments, long captions, Map<String, Long> captionsByLanguage,
+                        long distinctCommenters) {
+    }
+
+    private static final class Counters {
+        private final boolean channel;
+        private final HyperLogLog commenters;
+        private final Map<String, Long> captionsByLanguage = new TreeMap<>();
+        private long videos;
+        private long comments;
+        private long captions;
+
+        private Counters(boolean channel, int precision) {
+            this.channel = channel;
+            this.commenters = new HyperLogLog(precision);
+        }
+
+        private synchronized void addCaption(String language, int delta) {
+            captions += delta;
+            captionsByLanguage.merge(language, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        private synchronized Stats snapshot() {
+            return new Stats(channel ? videos : null, comments, captions, new TreeMap<>(captionsByLanguage),
+                    commenters.estimate());
+        }
+    }
+
+    private final OwnershipIndex ownership;
+    private final int precision;
+    private final Map<String, Counters> channels = new ConcurrentHashMap<>();
+    private final Map<String, Counters> videos = new ConcurrentHashMap<>();
+    // The language each committed caption is counted under
+    private final Map<String, String> captionLanguages = new ConcurrentHashMap<>();
+    // The channel each video is counted in
+    private final Map<String, String> videoChannels = new ConcurrentHashMap<>();
+
+    public StatisticsService(ChangeLog changeLog, OwnershipIndex ownership,
+                             @Value("${videominer.stats.hll-precision:10}") int precision) {
+        this.ownership = ownership;
+        this.precision = precision;
+        changeLog.addListener(this);
+        ownership.addListener(this);
+    }
+
+    public Stats channelStats(String channelId) {
+        Counters counters = channels.get(channelId);
+        return counters == null ? null : counters.snapshot();
+    }
+
+    public Stats videoStats(String videoId) {
+        Counters counters = videos.get(videoId);
+        return counters == null ? null : counters.snapshot();
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        for (Change change : Change.parentsFirst(changes)) {
+            switch (change.resource()) {
+                case "channels" -> onChannel(change);
+                case "videos" -> onVideo(change);
+                case "comments" -> onComment(change);
+                case "captions" -> onCaption(change);
+                default -> { }
+            }
+        }
+    }
+
+    private void onChannel(Change change) {
+        if (change.operation() == Change.Operation.DELETED) {
+            channels.remove(change.id());
+        } else {
+            channels.computeIfAbsent(change.id(), id -> new Counters(true, precision));
+        }
+    }
+
+    private void onVideo(Change change) {
+        if (change.operation() == Change.Operation.DELETED) {
+            videos.remove(change.id());
+            countVideo(change.id(), null);
+        } else {
+            videos.computeIfAbsent(change.id(), id -> new Counters(false, precision));
+        }
+    }
+
+    /**
+     * Counts the video in its new channel once the current transaction commits (or right away outside a
+     * transaction). Moves of a rolled back transaction are discarded.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onVideoMoved(String videoId, String channelId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            countVideo(videoId, channelId);
+            return;
+        }
+        List<String[]> moves = (List<String[]>) TransactionSynchronizationManager.getResource(this);
+        if (moves == null) {
+            List<String[]> transactionMoves = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionMoves);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(StatisticsService.this);
+                    if (status == STATUS_COMMITTED) {
+                        transactionMoves.forEach(move -> countVideo(move[0], move[1]));
+                    }
+                }
+            });
+            moves = transactionMoves;
+        }
+        moves.add(new String[] { videoId, channelId });
+    }
+
+    private void countVideo(String videoId, String channelId) {
+        String previous = channelId == null ? videoChannels.remove(videoId) : videoChannels.put(videoId, channelId);
+        if (Objects.equals(previous, channelId)) {
+            return;
+        }
+        if (previous != null) {
+            Counters counters = channels.get(previous);
+            if (counters != null) {
+                synchronized (counters) {
+                    counters.videos--;
+                }
+            }
+        }
+        if (channelId != null) {
+            // The move may be applied before the change that creates the channel
+            Counters counters = channels.computeIfAbsent(channelId, id -> new Counters(true, precision));
+            synchronized (counters) {
+                counters.videos++;
+            }
+        }
+    }
+
+    private void onComment(Change change) {
+        String author = change.attribute(AttributeStaging.AUTHOR);
+        String videoId = ownership.videoOfComment(change.id());
+        if (videoId == null) {
+            return;
+        }
+        int delta = switch (change.operation()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            default -> 0;
+        };
+        for (Counters counters : new Counters[] { videos.get(videoId), channelOfVideo(videoId) }) {
+            if (counters != null) {
+                synchronized (counters) {
+                    counters.comments += delta;
+                    if (author != null && delta >= 0) {
+                        counters.commenters.add(author);
+                    }
+                }
+            }
+        }
+    }
+
+    private void onCaption(Change change) {
+        String language = change.attribute(AttributeStaging.LANGUAGE);
+        String videoId = ownership.videoOfCaption(change.id());
+        String previous = change.operation() == Change.Operation.DELETED
+                ? captionLanguages.remove(change.id())
+                : language != null ? captionLanguages.put(change.id(), language) : captionLanguages.get(change.id());
+        if (videoId == null) {
+            return;
+        }
+        for (Counters counters : new Counters[] { videos.get(videoId), channelOfVideo(videoId) }) {
+            if (counters == null) {
+                continue;
+            }
+            switch (change.operation()) {
+                case CREATED -> counters.addCaption(language != null ? language : AttributeStaging.UNKNOWN_LANGUAGE, 1);
+                case DELETED -> counters.addCaption(previous != null ? previous : AttributeStaging.UNKNOWN_LANGUAGE, -1);
+                case UPDATED -> {
+                    if (previous != null && language != null && !previous.equals(language)) {
+                        counters.addCaption(previous, -1);
+                        counters.addCaption(language, 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private Counters channelOfVideo(String videoId) {
+        String channelId = ownership.channelOfVideo(videoId);
+        return channelId == null ? null : channels.get(channelId);
+    }
+}
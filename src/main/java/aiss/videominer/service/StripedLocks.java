@@ -0,0 +1,146 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks indexed by the hash of (scope, id). Writes on the same channel or video are serialized
+ * while writes on different ones only contend when they happen to share a stripe.
+ */
+@Service
+public class StripedLocks {
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface VoidAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    private static final class WaitStatistics {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+    }
+
+    private final ReentrantLock[] stripes;
+    private final Map<String, WaitStatistics> statistics = new ConcurrentHashMap<>();
+
+    public StripedLocks(@Value("${videominer.locking.stripes:256}") int stripes) {
+        // Round up to a power of two so the stripe can be taken with a mask
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T, E extends Exception> T withLock(String scope, String id, Action<T, E> action) throws E {
+        ReentrantLock lock = stripe(scope, id);
+        acquire(scope, lock);
+        try {
+            return action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <E extends Exception> void runWithLock(String scope, String id, VoidAction<E> action) throws E {
+        ReentrantLock lock = stripe(scope, id);
+        acquire(scope, lock);
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of every (scope, id) given. The stripes are taken in ascending index
+     * order, so two callers whose sets overlap cannot deadlock, and a stripe shared by several keys is taken once.
+     */
+    public <T, E extends Exception> T withLocks(Map<String, ? extends Collection<String>> idsByScope, Action<T, E> action) throws E {
+        TreeMap<Integer, String> ordered = new TreeMap<>();
+        idsByScope.forEach((scope, ids) -> ids.forEach(id -> ordered.putIfAbsent(index(scope, id), scope)));
+        int acquired = 0;
+        ReentrantLock[] held = new ReentrantLock[ordered.size()];
+        try {
+            for (Map.Entry<Integer, String> entry : ordered.entrySet()) {
+                ReentrantLock lock = stripes[entry.getKey()];
+                acquire(entry.getValue(), lock);
+                held[acquired++] = lock;
+            }
+            return action.run();
+        } finally {
+            while (acquired > 0) {
+                held[--acquired].unlock();
+            }
+        }
+    }
+
+    public <E extends Exception> void runWithLocks(Map<String, ? extends Collection<String>> idsByScope, VoidAction<E> action) throws E {
+        withLocks(idsByScope, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private ReentrantLock stripe(String scope, String id) {
+        return stripes[index(scope, id)];
+    }
+
+    int index(String scope, String id) {
+        int hash = Objects.hash(scope, id);
+        // Spread the high bits, as HashMap does, before masking
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private void acquire(String scope, ReentrantLock lock) {
+        WaitStatistics scopeStatistics = statistics.computeIfAbsent(scope, s -> new WaitStatistics());
+        scopeStatistics.acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        scopeStatistics.contended.increment();
+        scopeStatistics.totalWaitNanos.add(waited);
+        scopeStatistics.maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        statistics.forEach((scope, scopeStatistics) -> {
+            long contended = scopeStatistics.contended.sum();
+            long totalWait = scopeStatistics.totalWaitNanos.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("acquisitions", scopeStatistics.acquisitions.sum());
+            values.put("contended", contended);
+            values.put("totalWaitMillis", TimeUnit.NANOSECONDS.toMillis(totalWait));
+            values.put("averageWaitMillis", contended == 0 ? 0.0 : totalWait / 1_000_000.0 / contended);
+            values.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(scopeStatistics.maxWaitNanos.get()));
+            result.put(scope, values);
+        });
+        return result;
+    }
+}
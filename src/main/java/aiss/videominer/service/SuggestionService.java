@@ -0,0 +1,312 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete of channel and video names. Each type has a trie over the {@link Names normalized} names in which
+ * every node keeps its {@code max-limit} most popular names, popularity being the number of comments. A
+ * suggestion is thus a walk down the prefix plus a copy of that list, independent of the catalog size. Kept up
+ * to date from the {@link ChangeLog}.
+ */
+@Service
+public class SuggestionService implements ChangeLog.Listener {
+
+    public record Suggestion(String id, String name, long popularity) {
+    }
+
+    private static final Comparator<Entry> BY_POPULARITY = Comparator.comparingLong((Entry e) -> e.popularity).reversed()
+            .thenComparing(e -> e.key)
+            .thenComparing(e -> e.id);
+
+    private static final class Entry {
+        private final String id;
+        private String name;
+        private String key;
+        private long popularity;
+
+        private Entry(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        // Sorted labels, searched by binary search, which is more compact than a map per node
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        // Entries whose name ends here, and the most popular ones of the whole subtree
+        private List<Entry> entries;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = label;
+            newChildren[index] = new Node();
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[index];
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                char[] newLabels = new char[labels.length - 1];
+                Node[] newChildren = new Node[children.length - 1];
+                System.arraycopy(labels, 0, newLabels, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                labels = newLabels;
+                children = newChildren;
+            }
+        }
+
+        private boolean isEmpty() {
+            return labels.length == 0 && (entries == null || entries.isEmpty());
+        }
+    }
+
+    private final class Trie {
+        private final Node root = new Node();
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        private void put(String id, String name) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (entry.name.equals(name)) {
+                    return;
+                }
+                unlink(entry);
+            } else {
+                entry = new Entry(id);
+                entries.put(id, entry);
+            }
+            entry.name = name;
+            entry.key = Names.normalize(name);
+            Node node = root;
+            offer(node, entry);
+            for (char label : entry.key.toCharArray()) {
+                node = node.addChild(label);
+                offer(node, entry);
+            }
+            if (node.entries == null) {
+                node.entries = new ArrayList<>(1);
+            }
+            node.entries.add(entry);
+        }
+
+        private void remove(String id) {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                unlink(entry);
+            }
+        }
+
+        private void addPopularity(String id, long delta) {
+            Entry entry = entries.get(id);
+            if (entry == null || delta == 0) {
+                return;
+            }
+            entry.popularity = Math.max(0, entry.popularity + delta);
+            List<Node> path = path(entry.key);
+            if (delta > 0) {
+                path.forEach(node -> offer(node, entry));
+            } else {
+                // Bottom-up, since a node is recomputed from its children
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    if (contains(path.get(i), entry)) {
+                        recompute(path.get(i));
+                    }
+                }
+            }
+        }
+
+        private List<Suggestion> suggest(String prefix, int limit) {
+            Node node = root;
+            for (char label : Names.normalize(prefix).toCharArray()) {
+                node = node.child(label);
+                if (node == null) {
+                    return List.of();
+                }
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+            for (int i = 0; i < node.top.length && i < limit; i++) {
+                Entry entry = node.top[i];
+                suggestions.add(new Suggestion(entry.id, entry.name, entry.popularity));
+            }
+            return suggestions;
+        }
+
+        private List<Node> path(String key) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (char label : key.toCharArray()) {
+                node = node.child(label);
+                path.add(node);
+            }
+            return path;
+        }
+
+        private void unlink(Entry entry) {
+            List<Node> path = path(entry.key);
+            path.get(path.size() - 1).entries.remove(entry);
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (i > 0 && node.isEmpty()) {
+                    path.get(i - 1).removeChild(entry.key.charAt(i - 1));
+                } else if (contains(node, entry)) {
+                    recompute(node);
+                }
+            }
+        }
+    }
+
+    private final int maxLimit;
+    private final Map<String, Trie> tries = Map.of("channel", new Trie(), "video", new Trie());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OwnershipIndex ownership;
+
+    public SuggestionService(ChangeLog changeLog, OwnershipIndex ownership,
+                             @Value("${videominer.suggest.max-limit:20}") int maxLimit) {
+        this.ownership = ownership;
+        this.maxLimit = maxLimit;
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Returns up to {@code limit} names of the given type ("channel" or "video") starting with the prefix, the
+     * most commented first, or null if the type is unknown.
+     */
+    public List<Suggestion> suggest(String type, String prefix, int limit) {
+        Trie trie = tries.get(type);
+        if (trie == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, Math.min(limit, maxLimit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : Change.parentsFirst(changes)) {
+                switch (change.resource()) {
+                    case "channels" -> onNamed(tries.get("channel"), change);
+                    case "videos" -> onNamed(tries.get("video"), change);
+                    case "comments" -> onComment(change);
+                    default -> { }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onNamed(Trie trie, Change change) {
+        String name = change.attribute(AttributeStaging.NAME);
+        if (change.operation() == Change.Operation.DELETED) {
+            trie.remove(change.id());
+        } else if (name != null) {
+            trie.put(change.id(), name);
+        }
+    }
+
+    private void onComment(Change change) {
+        long delta = switch (change.operation()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            default -> 0;
+        };
+        String videoId = ownership.videoOfComment(change.id());
+        if (videoId != null && delta != 0) {
+            tries.get("video").addPopularity(videoId, delta);
+            String channelId = ownership.channelOfVideo(videoId);
+            if (channelId != null) {
+                tries.get("channel").addPopularity(channelId, delta);
+            }
+        }
+    }
+
+    private void offer(Node node, Entry entry) {
+        int current = indexOf(node, entry);
+        Entry[] top = node.top;
+        if (current >= 0) {
+            top = remove(top, current);
+        } else if (top.length == maxLimit && BY_POPULARITY.compare(entry, top[top.length - 1]) >= 0) {
+            return;
+        }
+        int index = Arrays.binarySearch(top, entry, BY_POPULARITY);
+        index = index < 0 ? -index - 1 : index;
+        Entry[] newTop = new Entry[Math.min(top.length + 1, maxLimit)];
+        System.arraycopy(top, 0, newTop, 0, index);
+        newTop[index] = entry;
+        System.arraycopy(top, index, newTop, index + 1, newTop.length - index - 1);
+        node.top = newTop;
+    }
+
+    private void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        if (node.entries != null) {
+            candidates.addAll(node.entries);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_POPULARITY);
+        node.top = candidates.subList(0, Math.min(candidates.size(), maxLimit)).toArray(new Entry[0]);
+    }
+
+    private static boolean contains(Node node, Entry entry) {
+        return indexOf(node, entry) >= 0;
+    }
+
+    private static int indexOf(Node node, Entry entry) {
+        for (int i = 0; i < node.top.length; i++) {
+            if (node.top[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry[] remove(Entry[] top, int index) {
+        Entry[] newTop = new Entry[top.length - 1];
+        System.arraycopy(top, 0, newTop, 0, index);
+        System.arraycopy(top, index + 1, newTop, index, top.length - index - 1);
+        return newTop;
+    }
+}
@@ -0,0 +1,150 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps the DataSource so that every statement is timed and recorded in the {@link SlowQueryLog}. A query is
+ * timed from its execution until its result set is closed, so that the time spent fetching its rows (which are
+ * counted) is included. Also feeds the {@link StatementCapture} and traces each statement of a traced request
+ (see {@link Tracing}). Disabled with videominer.slow-query.enabled=false.
+ */
+@Component
+public class TimedDataSource implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final ObjectProvider<Tracing> tracing;
+    private final boolean enabled;
+
+    // The log and the tracing are looked up lazily, since post-processors are created before the other beans
+    public TimedDataSource(ObjectProvider<SlowQueryLog> slowQueryLog, ObjectProvider<Tracing> tracing,
+                           @Value("${videominer.slow-query.enabled:true}") boolean enabled) {
+        this.slowQueryLog = slowQueryLog;
+        this.tracing = tracing;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, (proxy, method, args) -> wrap(invoke(method, dataSource, args)));
+        }
+        return bean;
+    }
+
+    private Object wrap(Object result) {
+        if (result instanceof Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object created = invoke(method, connection, args);
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                if (created instanceof CallableStatement statement) {
+                    return statement(CallableStatement.class, statement, sql);
+                } else if (created instanceof PreparedStatement statement) {
+                    return statement(PreparedStatement.class, statement, sql);
+                } else if (created instanceof Statement statement) {
+                    return statement(Statement.class, statement, null);
+                }
+                return created;
+            });
+        }
+        return result;
+    }
+
+    private <T extends Statement> T statement(Class<T> type, T statement, String preparedSql) {
+        // Parameters are only kept for StatementCapture
+        Map<Integer, Object> parameters = new HashMap<>();
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                if (StatementCapture.active() && method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    parameters.put(index, "setNull".equals(method.getName()) ? null : args[1]);
+                } else if ("clearParameters".equals(method.getName())) {
+                    parameters.clear();
+                }
+                return invoke(method, statement, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (StatementCapture.active()) {
+                StatementCapture.add(sql, parameters);
+            }
+            Tracing.Phase span = span(sql);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(method, statement, args);
+            } catch (Throwable e) {
+                span.error(e);
+                span.close();
+                throw e;
+            }
+            if (result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, sql, start, span);
+            }
+            long rows = -1;
+            if (result instanceof Integer count) {
+                rows = count;
+            } else if (result instanceof Long count) {
+                rows = count;
+            } else if (result instanceof int[] counts) {
+                rows = 0;
+                for (int count : counts) {
+                    rows += Math.max(0, count);
+                }
+            }
+            slowQueryLog.getObject().record(sql == null ? "" : sql, System.nanoTime() - start, rows);
+            span.tag("db.rows", String.valueOf(rows)).close();
+            return result;
+        });
+    }
+
+    private Tracing.Phase span(String sql) {
+        Tracing tracer = tracing.getIfAvailable();
+        if (tracer == null) {
+            return Tracing.Phase.NONE;
+        }
+        return tracer.start("sql", "sql").tag("db.system", "h2").tag("db.statement", sql);
+    }
+
+    private ResultSet resultSet(ResultSet resultSet, String sql, long start, Tracing.Phase span) {
+        long[] rows = { 0 };
+        boolean[] recorded = { false };
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(method, resultSet, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if ("close".equals(method.getName()) && !recorded[0]) {
+                recorded[0] = true;
+                slowQueryLog.getObject().record(sql == null ? "" : sql, System.nanoTime() - start, rows[0]);
+                span.tag("db.rows", String.valueOf(rows[0])).close();
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
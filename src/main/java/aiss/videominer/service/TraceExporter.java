@@ -0,0 +1,55 @@
+package aiss.videominer.service;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * OpenTelemetry exporter (registered by Spring Boot with its batch span processor, next to any other exporter)
+ * that keeps the traces of the requests in the {@link TraceStore}. Traces are thus shown a few seconds after
+ * their request ends.
+ */
+@Component
+public class TraceExporter implements SpanExporter {
+
+    private final TraceStore store;
+
+    public TraceExporter(TraceStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            SpanContext parent = span.getParentSpanContext();
+            boolean root = !parent.isValid() || parent.isRemote();
+            if (root && span.getKind() != SpanKind.SERVER) {
+                store.discard(span.getTraceId());
+                continue;
+            }
+            Map<String, String> attributes = new HashMap<>();
+            span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+            store.add(new TraceStore.FinishedSpan(span.getTraceId(), span.getSpanId(),
+                    root ? null : span.getParentSpanId(), span.getName(), span.getStartEpochNanos(),
+                    span.getEndEpochNanos(), attributes));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,145 @@
+package aiss.videominer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The last videominer.tracing.keep traced requests, assembled from their finished spans (see
+ * {@link TraceExporter}). Spans finish before their parents, so those of a trace are held until its root span
+ * arrives, which completes it.
+ */
+@Service
+public class TraceStore {
+
+    /**
+     * A finished span, the parent being null for the root of its trace.
+     */
+    public record FinishedSpan(String traceId, String spanId, String parentSpanId, String name,
+                               long startEpochNanos, long endEpochNanos, Map<String, String> attributes) {
+    }
+
+    public record Span(String name, String phase, double offsetMs, double durationMs, Map<String, String> attributes,
+                       List<Span> children) {
+    }
+
+    /**
+     * A traced request, with the total time of the spans of each phase. The time of nested spans is also counted
+     * in their parents', as that of the statements of a lazy loading.
+     */
+    public record Trace(String traceId, String name, Instant start, double durationMs, Map<String, Double> phases,
+                        Span root) {
+    }
+
+    private final int keep;
+    private final int maxPending;
+    private final ArrayDeque<Trace> recent = new ArrayDeque<>();
+    // Spans of the traces whose root has not finished yet, the oldest trace first
+    private final LinkedHashMap<String, List<FinishedSpan>> pending = new LinkedHashMap<>();
+
+    public TraceStore(@Value("${videominer.tracing.keep:500}") int keep) {
+        this.keep = keep;
+        this.maxPending = keep * 4;
+    }
+
+    public synchronized void add(FinishedSpan span) {
+        if (span.parentSpanId() != null) {
+            pending.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+            if (pending.size() > maxPending) {
+                Iterator<String> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            return;
+        }
+        List<FinishedSpan> spans = pending.remove(span.traceId());
+        recent.addLast(trace(span, spans == null ? List.of() : spans));
+        if (recent.size() > keep) {
+            recent.removeFirst();
+        }
+    }
+
+    /**
+     * Drops the spans of a trace that is not kept, such as one of a scheduled task.
+     */
+    public synchronized void discard(String traceId) {
+        pending.remove(traceId);
+    }
+
+    /**
+     * Returns the kept traces that took the longest, the slowest first.
+     */
+    public synchronized List<Trace> slowest(int limit) {
+        return recent.stream()
+                .sorted(Comparator.comparingDouble(Trace::durationMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public synchronized void clear() {
+        recent.clear();
+        pending.clear();
+    }
+
+    private static Trace trace(FinishedSpan root, List<FinishedSpan> spans) {
+        Map<String, List<FinishedSpan>> children = new HashMap<>();
+        for (FinishedSpan span : spans) {
+            children.computeIfAbsent(span.parentSpanId(), id -> new ArrayList<>()).add(span);
+        }
+        Map<String, Double> phases = new TreeMap<>();
+        Span tree = span(root, root.startEpochNanos(), children, phases);
+        // Spans whose parent was lost (dropped or not exported) are shown under the root
+        if (!children.isEmpty()) {
+            Set<String> known = new HashSet<>();
+            for (FinishedSpan span : spans) {
+                known.add(span.spanId());
+            }
+            List<Span> orphans = new ArrayList<>(tree.children());
+            for (String parent : List.copyOf(children.keySet())) {
+                if (known.contains(parent)) {
+                    continue;
+                }
+                for (FinishedSpan span : children.remove(parent)) {
+                    orphans.add(span(span, root.startEpochNanos(), children, phases));
+                }
+            }
+            orphans.sort(Comparator.comparingDouble(Span::offsetMs));
+            tree = new Span(tree.name(), tree.phase(), tree.offsetMs(), tree.durationMs(), tree.attributes(), orphans);
+        }
+        return new Trace(root.traceId(), root.name(), Instant.EPOCH.plusNanos(root.startEpochNanos()),
+                tree.durationMs(), phases, tree);
+    }
+
+    // Removes the spans it builds from children, so that those left are orphans
+    private static Span span(FinishedSpan span, long traceStart, Map<String, List<FinishedSpan>> children,
+                             Map<String, Double> phases) {
+        List<Span> nested = new ArrayList<>();
+        List<FinishedSpan> direct = children.remove(span.spanId());
+        if (direct != null) {
+            direct.sort(Comparator.comparingLong(FinishedSpan::startEpochNanos));
+            for (FinishedSpan child : direct) {
+                nested.add(span(child, traceStart, children, phases));
+            }
+        }
+        Map<String, String> attributes = new TreeMap<>(span.attributes());
+        String phase = attributes.remove(Tracing.PHASE);
+        double durationMs = (span.endEpochNanos() - span.startEpochNanos()) / 1e6;
+        if (phase != null) {
+            phases.merge(phase, durationMs, Double::sum);
+        }
+        return new Span(span.name(), phase, (span.startEpochNanos() - traceStart) / 1e6, durationMs, attributes,
+                nested);
+    }
+}
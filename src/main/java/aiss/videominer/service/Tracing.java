@@ -0,0 +1,88 @@
+package aiss.videominer.service;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spans of the phases of a request (controller, SQL, lazy loading, serialization), children of the span of the
+ * request. They are only created when that span is sampled (see management.tracing.sampling.probability), so that
+ * untraced requests only pay for a thread-local lookup.
+ */
+@Component
+public class Tracing {
+
+    /**
+     * Attribute holding the phase of a span.
+     */
+    public static final String PHASE = "videominer.phase";
+
+    private final Tracer tracer;
+
+    public Tracing(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    /**
+     * Starts a span that is the current one until it is closed, so that the spans started meanwhile by the same
+     * thread are its children.
+     */
+    public Phase open(String phase, String name) {
+        Span span = child(phase, name);
+        return span == null ? Phase.NONE : new Phase(span, tracer.withSpan(span));
+    }
+
+    /**
+     * Starts a span without making it current, for phases that do not nest, such as a query that lasts until its
+     * result set is closed.
+     */
+    public Phase start(String phase, String name) {
+        Span span = child(phase, name);
+        return span == null ? Phase.NONE : new Phase(span, null);
+    }
+
+    private Span child(String phase, String name) {
+        Span current = tracer.currentSpan();
+        if (current == null || !Boolean.TRUE.equals(current.context().sampled())) {
+            return null;
+        }
+        return tracer.nextSpan().name(name).tag(PHASE, phase).start();
+    }
+
+    public static final class Phase implements AutoCloseable {
+
+        static final Phase NONE = new Phase(null, null);
+
+        private final Span span;
+        private final Tracer.SpanInScope scope;
+
+        private Phase(Span span, Tracer.SpanInScope scope) {
+            this.span = span;
+            this.scope = scope;
+        }
+
+        public Phase tag(String key, String value) {
+            if (span != null && value != null) {
+                span.tag(key, value);
+            }
+            return this;
+        }
+
+        public void error(Throwable error) {
+            if (span != null) {
+                span.error(error);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (scope != null) {
+                scope.close();
+            }
+            if (span != null) {
+                span.end();
+            }
+        }
+    }
+}
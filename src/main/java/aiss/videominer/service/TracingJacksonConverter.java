@@ -0,0 +1,39 @@
+package aiss.videominer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter of the responses (replacing the one of Spring Boot, with the same ObjectMapper) that traces their
+ * serialization, which holds the lazy loading it triggers.
+ */
+@Component
+public class TracingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Tracing tracing;
+
+    public TracingJacksonConverter(ObjectMapper objectMapper, Tracing tracing) {
+        super(objectMapper);
+        this.tracing = tracing;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (Tracing.Phase phase = tracing.open("serialization", "serialize " + ClassUtils.getShortName(object.getClass()))) {
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } catch (IOException | RuntimeException e) {
+                phase.error(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.UnsupportedWindowException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Videos ranked by the comments they received in a sliding window, each comment weighted by its recency (its
+ * weight halves every quarter of the window). Fed from the {@link ChangeLog}, so the ranking never reads the
+ * comment table.
+ * <p>
+ * Each window keeps its comments in {@value #BUCKETS} time buckets, expired as a whole, and the videos in an
+ * indexed max-heap. Scores use forward decay: a comment at time t adds {@code 2^((t - landmark) / halfLife)},
+ * which never changes afterwards, so the heap only moves when a video receives a comment or one of its buckets
+ * expires, and reading the top K costs O(K log K).
+ */
+@Service
+public class TrendingService implements ChangeLog.Listener {
+
+    public record Trend(String videoId, long comments, double score) {
+    }
+
+    private static final int BUCKETS = 60;
+    // Scores are rescaled before the weights of new comments grow past 2^RESCALE_HALF_LIVES
+    private static final int RESCALE_HALF_LIVES = 32;
+
+    private static final class Entry {
+        private final String videoId;
+        private long comments;
+        private double score;
+        private int index;
+
+        private Entry(String videoId) {
+            this.videoId = videoId;
+        }
+    }
+
+    private static final class Window {
+        private final long length;
+        private final long bucketLength;
+        private final double halfLife;
+        // Comments per video of each bucket, by bucket start
+        private final TreeMap<Long, Map<String, Integer>> buckets = new TreeMap<>();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final List<Entry> heap = new ArrayList<>();
+        private long landmark;
+
+        private Window(Duration length, long now) {
+            this.length = length.toMillis();
+            this.bucketLength = Math.max(1, this.length / BUCKETS);
+            this.halfLife = this.length / 4.0;
+            this.landmark = now;
+        }
+
+        private double weight(long time) {
+            return Math.pow(2, (time - landmark) / halfLife);
+        }
+
+        private synchronized void add(String videoId, long time) {
+            advance(time);
+            long start = time - time % bucketLength;
+            if (!buckets.isEmpty() && start <= buckets.lastKey() - length) {
+                // Older than the window
+                return;
+            }
+            buckets.computeIfAbsent(start, key -> new HashMap<>()).merge(videoId, 1, Integer::sum);
+            Entry entry = entries.get(videoId);
+            if (entry == null) {
+                entry = new Entry(videoId);
+                entries.put(videoId, entry);
+                entry.index = heap.size();
+                heap.add(entry);
+            }
+            entry.comments++;
+            entry.score += weight(start);
+            siftUp(entry.index);
+        }
+
+        private synchronized void remove(String videoId) {
+            Entry entry = entries.remove(videoId);
+            if (entry != null) {
+                removeFromHeap(entry);
+            }
+        }
+
+        private synchronized List<Trend> top(int limit, long now) {
+            advance(now);
+            double scale = weight(now);
+            List<Trend> top = new ArrayList<>(Math.min(limit, heap.size()));
+            // The K largest of a max-heap are among the children of the ones already taken
+            PriorityQueue<Integer> candidates = new PriorityQueue<>(Comparator.comparingDouble((Integer i) -> heap.get(i).score).reversed());
+            if (!heap.isEmpty()) {
+                candidates.add(0);
+            }
+            while (top.size() < limit && !candidates.isEmpty()) {
+                int index = candidates.poll();
+                Entry entry = heap.get(index);
+                top.add(new Trend(entry.videoId, entry.comments, entry.score / scale));
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heap.size(); child++) {
+                    candidates.add(child);
+                }
+            }
+            return top;
+        }
+
+        private void advance(long now) {
+            while (!buckets.isEmpty() && buckets.firstKey() <= now - length) {
+                Map.Entry<Long, Map<String, Integer>> expired = buckets.pollFirstEntry();
+                double weight = weight(expired.getKey());
+                expired.getValue().forEach((videoId, count) -> {
+                    Entry entry = entries.get(videoId);
+                    if (entry == null) {
+                        return;
+                    }
+                    entry.comments -= count;
+                    if (entry.comments <= 0) {
+                        entries.remove(videoId);
+                        removeFromHeap(entry);
+                    } else {
+                        entry.score = Math.max(0, entry.score - count * weight);
+                        siftDown(entry.index);
+                    }
+                });
+            }
+            if (now - landmark > RESCALE_HALF_LIVES * halfLife) {
+                // Dividing every score by the same factor keeps the heap order
+                double factor = weight(now);
+                heap.forEach(entry -> entry.score /= factor);
+                landmark = now;
+            }
+        }
+
+        private void removeFromHeap(Entry entry) {
+            int index = entry.index;
+            Entry last = heap.remove(heap.size() - 1);
+            if (last != entry) {
+                heap.set(index, last);
+                last.index = index;
+                siftUp(index);
+                siftDown(last.index);
+            }
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap.get(parent).score >= heap.get(index).score) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heap.size(); child++) {
+                    if (heap.get(child).score > heap.get(largest).score) {
+                        largest = child;
+                    }
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            Entry a = heap.get(i);
+            Entry b = heap.get(j);
+            heap.set(i, b);
+            heap.set(j, a);
+            a.index = j;
+            b.index = i;
+        }
+    }
+
+    private final OwnershipIndex ownership;
+    private final Map<Duration, Window> windows = new LinkedHashMap<>();
+
+    public TrendingService(ChangeLog changeLog, OwnershipIndex ownership,
+                           @Value("${videominer.trending.windows:1h,1d}") String[] windows) {
+        this.ownership = ownership;
+        long now = System.currentTimeMillis();
+        for (String window : windows) {
+            Duration length = DurationStyle.detectAndParse(window.trim());
+            this.windows.put(length, new Window(length, now));
+        }
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Returns up to {@code limit} videos ranked by their recency-weighted comments in the given window (as in
+     * "1h" or "1d"), which must be one of videominer.trending.windows.
+     */
+    public List<Trend> top(String window, int limit) throws UnsupportedWindowException {
+        Window trending = null;
+        try {
+            trending = windows.get(DurationStyle.detectAndParse(window));
+        } catch (IllegalArgumentException e) {
+            // Reported below
+        }
+        if (trending == null) {
+            throw new UnsupportedWindowException();
+        }
+        return trending.top(limit, System.currentTimeMillis());
+    }
+
+    @Override
+    public void onChanges(List<Change> changes) {
+        for (Change change : changes) {
+            if ("comments".equals(change.resource()) && change.operation() == Change.Operation.CREATED) {
+                String videoId = ownership.videoOfComment(change.id());
+                if (videoId != null) {
+                    windows.values().forEach(window -> window.add(videoId, change.timestamp()));
+                }
+            } else if ("videos".equals(change.resource()) && change.operation() == Change.Operation.DELETED) {
+                windows.values().forEach(window -> window.remove(change.id()));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package aiss.videominer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory buffer of pending creates, keyed by id. Entries stay readable until the batch holding them has
+ * been written, so a client always finds what it has just created. An entity that cannot be written stays
+ * buffered for the next flushes; after {@code maxAttempts} failed ones it is moved to the dead letters, where it
+ * is kept until {@link #retryDeadLetters()} puts it back.
+ */
+public class WriteBehindBuffer<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final String name;
+    private final Function<T, String> idOf;
+    private final Consumer<List<T>> batchWriter;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final Map<String, T> pending = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Map<String, T> deadLetters = new ConcurrentHashMap<>();
+    // A lock rather than a monitor, since the batches are written while holding it and a virtual thread blocked
+    // in a synchronized block would pin its carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public WriteBehindBuffer(String name, Function<T, String> idOf, Consumer<List<T>> batchWriter, int batchSize,
+                             int maxAttempts) {
+        this.name = name;
+        this.idOf = idOf;
+        this.batchWriter = batchWriter;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public void add(T entity) {
+        pending.put(idOf.apply(entity), entity);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public Optional<T> get(String id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    public boolean contains(String id) {
+        return pending.containsKey(id);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public List<T> deadLetters() {
+        return new ArrayList<>(deadLetters.values());
+    }
+
+    /**
+     * Buffers the dead letters again, each with a new set of attempts.
+     */
+    public void retryDeadLetters() {
+        flushLock.lock();
+        try {
+            deadLetters.forEach(pending::putIfAbsent);
+            deadLetters.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("pending", pending.size());
+        statistics.put("failing", failedAttempts.size());
+        statistics.put("deadLetters", deadLetters.size());
+        return statistics;
+    }
+
+    /**
+     * Writes everything buffered so far in batches of {@code batchSize}. If a batch fails, its entities are
+     * written one by one so that a single bad row doesn't keep the rest of the batch in the buffer.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<T> snapshot = new ArrayList<>(pending.values());
+            for (int from = 0; from < snapshot.size(); from += batchSize) {
+                List<T> batch = snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+                try {
+                    batchWriter.accept(batch);
+                    batch.forEach(this::written);
+                } catch (RuntimeException e) {
+                    log.warn("Write-behind batch of {} {} failed, retrying one by one", batch.size(), name, e);
+                    batch.forEach(this::writeOne);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeOne(T entity) {
+        String id = idOf.apply(entity);
+        try {
+            batchWriter.accept(List.of(entity));
+            written(entity);
+        } catch (RuntimeException e) {
+            int attempts = failedAttempts.merge(id, 1, Integer::sum);
+            if (attempts < maxAttempts) {
+                log.warn("Buffered {} {} could not be written ({} of {} attempts)", name, id, attempts, maxAttempts, e);
+            } else if (pending.remove(id, entity)) {
+                failedAttempts.remove(id);
+                deadLetters.put(id, entity);
+                log.error("Buffered {} {} could not be written after {} attempts, moved to the dead letters", name, id, attempts, e);
+            }
+        }
+    }
+
+    private void written(T entity) {
+        String id = idOf.apply(entity);
+        if (pending.remove(id, entity)) {
+            failedAttempts.remove(id);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Comment;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Optional write-behind mode for comment and caption creates (videominer.write-behind.enabled). Creates are
+ * acknowledged once buffered and written in batched transactions when a buffer reaches the batch size, every
+ * flush interval, and on shutdown. The rendered and coalesced responses are invalidated again once a batch is
+ * written, since the invalidation of the POST itself happened before the rows existed. Rows that keep failing are
+ * kept as dead letters (see {@link WriteBehindBuffer}).
+ */
+@Service
+public class WriteBehindService {
+
+    private final boolean enabled;
+    private final WriteBehindBuffer<Comment> comments;
+    private final WriteBehindBuffer<Caption> captions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public WriteBehindService(TransactionTemplate transactionTemplate,
+                              ResponseCache responseCache,
+                              RequestCoalescer coalescer,
+                              @Value("${videominer.write-behind.enabled:false}") boolean enabled,
+                              @Value("${videominer.write-behind.batch-size:100}") int batchSize,
+                              @Value("${videominer.write-behind.max-attempts:5}") int maxAttempts) {
+        this.enabled = enabled;
+        this.comments = new WriteBehindBuffer<>("comments", Comment::getId, batch -> {
+            // Authors always get a new generated id (see User)
+            transactionTemplate.executeWithoutResult(status -> upsert(Comment.class, Comment::getId, batch,
+                    comment -> {
+                        if (comment.getAuthor() != null) {
+                            comment.getAuthor().setId(null);
+                        }
+                    }));
+            responseCache.invalidate("comments", null);
+            coalescer.invalidate();
+        }, batchSize, maxAttempts);
+        this.captions = new WriteBehindBuffer<>("captions", Caption::getId, batch -> {
+            transactionTemplate.executeWithoutResult(status -> upsert(Caption.class, Caption::getId, batch, caption -> { }));
+            responseCache.invalidate("captions", null);
+            coalescer.invalidate();
+        }, batchSize, maxAttempts);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers the comment. Returns false when it has to be saved right away (write-behind disabled or no id).
+     */
+    public boolean bufferComment(Comment comment) {
+        if (!enabled || comment.getId() == null) {
+            return false;
+        }
+        comments.add(comment);
+        return true;
+    }
+
+    public boolean bufferCaption(Caption caption) {
+        if (!enabled || caption.getId() == null) {
+            return false;
+        }
+        captions.add(caption);
+        return true;
+    }
+
+    public Optional<Comment> findComment(String id) {
+        return comments.get(id);
+    }
+
+    public Optional<Caption> findCaption(String id) {
+        return captions.get(id);
+    }
+
+    /**
+     * Writes the pending comments if the given one is among them, so that updates and deletes see it in the DB.
+     */
+    public void flushComment(String id) {
+        if (comments.contains(id)) {
+            comments.flush();
+        }
+    }
+
+    public void flushCaption(String id) {
+        if (captions.contains(id)) {
+            captions.flush();
+        }
+    }
+
+    public List<Comment> deadComments() {
+        return comments.deadLetters();
+    }
+
+    public List<Caption> deadCaptions() {
+        return captions.deadLetters();
+    }
+
+    public void retryDeadLetters() {
+        comments.retryDeadLetters();
+        captions.retryDeadLetters();
+    }
+
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> statistics = new LinkedHashMap<>();
+        statistics.put("comments", comments.getStatistics());
+        statistics.put("captions", captions.getStatistics());
+        return statistics;
+    }
+
+    /**
+     * Saves the batch like saveAll, without the SELECT per row that merging entities with assigned ids costs: one
+     * query finds the rows that already exist, which are merged, and the others are persisted.
+     */
+    private <T> void upsert(Class<T> type, Function<T, String> idOf, List<T> batch, Consumer<T> beforePersist) {
+        Set<String> existing = new HashSet<>(entityManager
+                .createQuery("select e.id from " + type.getSimpleName() + " e where e.id in :ids", String.class)
+                .setParameter("ids", batch.stream().map(idOf).toList())
+                .getResultList());
+        for (T entity : batch) {
+            if (existing.contains(idOf.apply(entity))) {
+                entityManager.merge(entity);
+            } else {
+                beforePersist.accept(entity);
+                entityManager.persist(entity);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${videominer.write-behind.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        comments.flush();
+        captions.flush();
+    }
+}
@@ -1,8 +1,12 @@
 package aiss.videominer.controller;
 import aiss.videominer.controller.CaptionController;
+import aiss.videominer.exception.InvalidPatchException;
 import aiss.videominer.exception.CaptionNotFoundException;
 import aiss.videominer.model.Caption;
 import aiss.videominer.repository.CaptionRepository;
+import aiss.videominer.service.CaptionLanguageIndex;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.WriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +16,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -26,6 +32,15 @@ public class CaptionControllerTest {
     @Mock
     private CaptionRepository captionRepository;
 
+    @Mock
+    private WriteBehindService writeBehind;
+
+    @Mock
+    private MergePatchService mergePatch;
+
+    @Mock
+    private CaptionLanguageIndex languages;
+
     @InjectMocks
     private CaptionController captionController;
 
@@ -42,13 +57,34 @@ public class CaptionControllerTest {
         Page<Caption> page = new PageImpl<>(Arrays.asList(caption));
         when(captionRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
 
-        List<Caption> result = captionController.findAll(0, 10, null, null, null);
+        List<Caption> result = captionController.findAll(0, 10, null, null, null, null, null);
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(caption, result.get(0));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldFilterByLanguageAndVideo() {
+        Page<Caption> page = new PageImpl<>(Arrays.asList(caption));
+        when(captionRepository.findAll(any(Specification.class), eq(PageRequest.of(0, 10)))).thenReturn(page);
+
+        List<Caption> result = captionController.findAll(0, 10, null, null, null, "en", "v1");
+
+        assertEquals(List.of(caption), result);
+        verify(captionRepository, never()).findAll(PageRequest.of(0, 10));
+    }
+
+    @Test
+    void findLanguages_ShouldReturnFacets() {
+        List<CaptionLanguageIndex.LanguageFacet> facets = List.of(new CaptionLanguageIndex.LanguageFacet("en", 3),
+                new CaptionLanguageIndex.LanguageFacet("es", 1));
+        when(languages.facets()).thenReturn(facets);
+
+        assertEquals(facets, captionController.findLanguages());
+    }
+
     @Test
     void findOne_ShouldReturnCaption() throws CaptionNotFoundException {
         when(captionRepository.findById("1")).thenReturn(Optional.of(caption));
@@ -110,4 +146,20 @@ public class CaptionControllerTest {
 
         assertThrows(CaptionNotFoundException.class, () -> captionController.delete("1"));
     }
+
+    @Test
+    void patch_ShouldApplyMergePatch() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("language", "es");
+        when(mergePatch.apply(eq(Caption.class), eq("1"), eq(patch), anySet())).thenReturn(true);
+
+        assertDoesNotThrow(() -> captionController.patch(patch, "1"));
+    }
+
+    @Test
+    void patch_ShouldThrowExceptionWhenCaptionNotFound() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("language", "es");
+        when(mergePatch.apply(eq(Caption.class), eq("1"), eq(patch), anySet())).thenReturn(false);
+
+        assertThrows(CaptionNotFoundException.class, () -> captionController.patch(patch, "1"));
+    }
 }
@@ -1,16 +1,30 @@
 package aiss.videominer.controller;
 
+import aiss.videominer.exception.InvalidPatchException;
+import aiss.videominer.exception.ChannelIngestException;
 import aiss.videominer.exception.ChannelNotFoundException;
+import aiss.videominer.exception.GlobalExceptionHandler;
 import aiss.videominer.model.Channel;
+import aiss.videominer.model.Video;
 import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.service.ChannelIngestService;
+import aiss.videominer.service.FuzzySearchService;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.StatisticsService;
+import aiss.videominer.service.StripedLocks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -22,6 +36,21 @@ public class ChannelControllerTest {
     @Mock
     private ChannelRepository channelRepository;
 
+    @Spy
+    private StripedLocks locks = new StripedLocks(16);
+
+    @Mock
+    private MergePatchService mergePatch;
+
+    @Mock
+    private FuzzySearchService fuzzySearch;
+
+    @Mock
+    private StatisticsService statistics;
+
+    @Mock
+    private ChannelIngestService ingest;
+
     @InjectMocks
     private ChannelController channelController;
 
@@ -59,10 +88,10 @@ public class ChannelControllerTest {
     }
 
     @Test
-    void create_ShouldSaveChannel() {
+    void create_ShouldSaveChannel() throws ChannelIngestException {
         // Arrange
         Channel channel = new Channel("1", "Test Channel", new ArrayList<>(), "2024-05-12", "Description");
-        when(channelRepository.save(any(Channel.class))).thenReturn(channel);
+        when(ingest.ingest(any(Channel.class))).thenReturn(channel);
 
         // Act
         Channel savedChannel = channelController.create(channel);
@@ -74,10 +103,42 @@ public class ChannelControllerTest {
         assertEquals(channel.getDescription(), savedChannel.getDescription());
         assertEquals(channel.getCreatedTime(), savedChannel.getCreatedTime());
         assertEquals(channel.getVideos(), savedChannel.getVideos());
-        verify(channelRepository).save(channel);
+        verify(ingest).ingest(channel);
     }
 
 
+    @Test
+    void create_ShouldLockTheVideosOfTheChannel() throws ChannelIngestException {
+        // Arrange
+        Video video = new Video("v1", "Video", "Description", "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        Channel channel = new Channel("1", "Test Channel", new ArrayList<>(List.of(video)), "2024-05-12", "Description");
+        when(ingest.ingest(channel)).thenReturn(channel);
+
+        // Act
+        channelController.create(channel);
+
+        // Assert
+        verify(locks).withLocks(eq(Map.of("channel", List.of("1"), "video", List.of("v1"))), any());
+        verify(ingest).ingest(channel);
+    }
+
+    @Test
+    void create_ShouldReportPartialIngestAsMultiStatus() throws ChannelIngestException {
+        // Arrange
+        Channel channel = new Channel("1", "Test Channel", new ArrayList<>(), "2024-05-12", "Description");
+        List<String> errors = List.of("Partition 1 (videos 2 to 3) could not be saved");
+        when(ingest.ingest(channel)).thenThrow(new ChannelIngestException(channel, errors));
+
+        // Act
+        ChannelIngestException exception = assertThrows(ChannelIngestException.class, () -> channelController.create(channel));
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleChannelIngestException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertSame(channel, response.getBody().get("channel"));
+        assertEquals(errors, response.getBody().get("errors"));
+    }
+
     @Test
     void update_ShouldUpdateChannel() throws ChannelNotFoundException {
         // Given
@@ -96,6 +157,21 @@ public class ChannelControllerTest {
 
 
 
+    @Test
+    void update_ShouldLockTheVideosOfTheChannel() throws ChannelNotFoundException {
+        // Arrange
+        Video video = new Video("v1", "Video", "Description", "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        Channel channelToUpdate = new Channel("1", "Updated Channel", new ArrayList<>(List.of(video)), "2024-05-12", "Updated Description");
+        when(channelRepository.existsById("1")).thenReturn(true);
+
+        // Act
+        channelController.update(channelToUpdate, "1");
+
+        // Assert
+        verify(locks).runWithLocks(eq(Map.of("channel", List.of("1"), "video", List.of("v1"))), any());
+        verify(channelRepository).save(any(Channel.class));
+    }
+
     @Test
     void update_ShouldThrowExceptionWhenChannelNotFound() {
         // Arrange
@@ -127,4 +203,55 @@ public class ChannelControllerTest {
 
         assertThrows(ChannelNotFoundException.class, () -> channelController.delete("1"));
     }
+
+    @Test
+    void patch_ShouldApplyMergePatch() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("name", "Updated Channel");
+        when(mergePatch.apply(eq(Channel.class), eq("1"), eq(patch), anySet())).thenReturn(true);
+
+        assertDoesNotThrow(() -> channelController.patch(patch, "1"));
+    }
+
+    @Test
+    void patch_ShouldThrowExceptionWhenChannelNotFound() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("name", "Updated Channel");
+        when(mergePatch.apply(eq(Channel.class), eq("1"), eq(patch), anySet())).thenReturn(false);
+
+        assertThrows(ChannelNotFoundException.class, () -> channelController.patch(patch, "1"));
+    }
+
+    @Test
+    void findStats_ShouldReturnStats() throws ChannelNotFoundException {
+        StatisticsService.Stats stats = new StatisticsService.Stats(2L, 3, 1, Map.of("es", 1L), 2);
+        when(statistics.channelStats("1")).thenReturn(stats);
+
+        assertEquals(stats, channelController.findStats("1"));
+        verifyNoInteractions(channelRepository);
+    }
+
+    @Test
+    void findStats_ShouldThrowExceptionWhenChannelNotFound() {
+        when(statistics.channelStats("1")).thenReturn(null);
+        when(channelRepository.existsById("1")).thenReturn(false);
+
+        assertThrows(ChannelNotFoundException.class, () -> channelController.findStats("1"));
+    }
+
+    @Test
+    void findAll_ShouldReturnFuzzyMatchesInRankedOrder() throws ChannelNotFoundException {
+        Channel closest = new Channel("2", "Test", new ArrayList<>(), "2024-05-12", "Description");
+        when(fuzzySearch.search("channel", "tset", null)).thenReturn(List.of("2", "1", "3"));
+        when(channelRepository.findAllById(List.of("2", "1"))).thenReturn(List.of(channel, closest));
+
+        List<Channel> result = channelController.findAll(0, 2, null, null, null, "tset", null);
+
+        assertEquals(List.of(closest, channel), result);
+    }
+
+    @Test
+    void findAll_ShouldThrowExceptionWhenNoFuzzyMatch() {
+        when(fuzzySearch.search("channel", "zzz", 1)).thenReturn(List.of());
+
+        assertThrows(ChannelNotFoundException.class, () -> channelController.findAll(0, 10, null, null, null, "zzz", 1));
+    }
 }
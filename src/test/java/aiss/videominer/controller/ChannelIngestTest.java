@@ -0,0 +1,79 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ingest of a channel with more videos than the partition size, against the database: the partitions are written
+ * concurrently and then linked to the channel by reference.
+ */
+@SpringBootTest(properties = {
+        "videominer.ingest.partition-size=2",
+        "videominer.ingest.threads=2",
+        "videominer.response-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ChannelIngestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void create_ShouldLinkEveryPartitionToTheChannel() throws Exception {
+        // Arrange
+        List<Video> videos = new ArrayList<>();
+        for (int v = 0; v < 5; v++) {
+            String videoId = "ingest-v" + v;
+            List<Comment> comments = new ArrayList<>(List.of(new Comment(videoId + "-c0", "Comment", "2024-05-12T10:00:00",
+                    new User(null, "user" + v, "https://www.youtube.com/@user" + v, null))));
+            List<Caption> captions = new ArrayList<>(List.of(new Caption(videoId + "-s0", "Caption", "en")));
+            videos.add(new Video(videoId, "Video " + v, "Description", "2024-05-12", comments, captions));
+        }
+        Channel channel = new Channel("ingest-ch", "Ingest channel", videos, "2024-05-12", "Description");
+
+        // Act
+        mockMvc.perform(post("/videominer/channels")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(channel)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.videos.length()").value(5));
+
+        // Assert, read from the database
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        mockMvc.perform(get("/videominer/channels/ingest-ch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.videos.length()").value(5))
+                .andExpect(jsonPath("$.videos[4].id").value("ingest-v4"))
+                .andExpect(jsonPath("$.videos[4].comments[0].author.name").value("user4"))
+                .andExpect(jsonPath("$.videos[4].captions[0].id").value("ingest-v4-s0"));
+        mockMvc.perform(get("/videominer/videos/ingest-v2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(1));
+    }
+}
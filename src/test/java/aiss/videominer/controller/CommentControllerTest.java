@@ -1,9 +1,12 @@
 package aiss.videominer.controller;
 
 import aiss.videominer.exception.CommentForbiddenException;
+import aiss.videominer.exception.InvalidPatchException;
 import aiss.videominer.exception.CommentNotFoundException;
 import aiss.videominer.model.Comment;
 import aiss.videominer.repository.CommentRepository;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.WriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +17,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.nio.file.Paths.get;
@@ -32,6 +38,12 @@ public class CommentControllerTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private WriteBehindService writeBehind;
+
+    @Mock
+    private MergePatchService mergePatch;
+
     @InjectMocks
     private CommentController commentController;
 
@@ -50,13 +62,27 @@ public class CommentControllerTest {
         Page<Comment> page = new PageImpl<>(Arrays.asList(comment));
         when(commentRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
 
-        List<Comment> result = commentController.findAll(0, 10, null, null, null);
+        List<Comment> result = commentController.findAll(0, 10, null, null, null, null, null, null, null, null);
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(comment, result.get(0));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldFilterInOneQuery() throws CommentNotFoundException {
+        Page<Comment> page = new PageImpl<>(Arrays.asList(comment));
+        PageRequest paging = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdOn"));
+        when(commentRepository.findAll(any(Specification.class), eq(paging))).thenReturn(page);
+
+        List<Comment> result = commentController.findAll(0, 10, null, "-createdOn", "Test", "alice", null, "c1", "2024-01-01", "2025-01-01");
+
+        assertEquals(List.of(comment), result);
+        verify(commentRepository, times(1)).findAll(any(Specification.class), eq(paging));
+        verify(commentRepository, never()).findAll(any(PageRequest.class));
+    }
+
     @Test
     void findOne_ShouldReturnComment() throws CommentNotFoundException, CommentForbiddenException {
         when(commentRepository.findById("1")).thenReturn(Optional.of(comment));
@@ -128,4 +154,20 @@ public class CommentControllerTest {
 
         assertThrows(CommentNotFoundException.class, () -> commentController.delete("1"));
     }
+
+    @Test
+    void patch_ShouldApplyMergePatch() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("text", "Updated Comment");
+        when(mergePatch.apply(eq(Comment.class), eq("1"), eq(patch), anySet())).thenReturn(true);
+
+        assertDoesNotThrow(() -> commentController.patch(patch, "1"));
+    }
+
+    @Test
+    void patch_ShouldThrowExceptionWhenCommentNotFound() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("text", "Updated Comment");
+        when(mergePatch.apply(eq(Comment.class), eq("1"), eq(patch), anySet())).thenReturn(false);
+
+        assertThrows(CommentNotFoundException.class, () -> commentController.patch(patch, "1"));
+    }
 }
@@ -0,0 +1,213 @@
+package aiss.videominer.controller;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+import aiss.videominer.repository.CaptionRepository;
+import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.support.PerformanceBudget;
+import aiss.videominer.support.PerformanceBudgetConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Number of SQL statements and allocated bytes of the main requests of each controller, reads and writes, so that
+ * a new N+1, a lost cache hit or a lost batch fails the build. "Cold" requests run with an empty second-level cache, "warm" ones right after
+ * the same request. Each request is made once before it is measured, so that one-time initialization is not
+ * counted. The response cache and the request coalescing are disabled to measure the controllers themselves.
+ */
+@SpringBootTest(properties = {
+        "videominer.response-cache.enabled=false",
+        "videominer.coalescing.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@Import(PerformanceBudgetConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ControllerBudgetTest {
+
+    private static final long ENTITY_BYTES = 1 << 20;
+    private static final long GRAPH_BYTES = 2 << 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PerformanceBudget budget;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private CaptionRepository captionRepository;
+
+    @BeforeAll
+    void seed() {
+        channelRepository.save(channel("budget-ch"));
+    }
+
+    // A channel with 2 videos, each with 2 comments and a caption
+    private static Channel channel(String id) {
+        List<Video> videos = new ArrayList<>();
+        for (int v = 0; v < 2; v++) {
+            String videoId = id.replace("-ch", "") + "-v" + v;
+            List<Comment> comments = new ArrayList<>();
+            for (int c = 0; c < 2; c++) {
+                comments.add(new Comment(videoId + "-c" + c, "Comment " + c, "2024-05-12T10:00:0" + c,
+                        new User(null, "user" + v + c, "https://www.youtube.com/@user" + v + c, null)));
+            }
+            List<Caption> captions = new ArrayList<>(List.of(new Caption(videoId + "-s0", "Caption", "en")));
+            videos.add(new Video(videoId, "Video " + v, "Description", "2024-05-12", comments, captions));
+        }
+        return new Channel(id, "Budget channel", videos, "2024-05-12", "Description");
+    }
+
+    private void write(MockHttpServletRequestBuilder request, Object body, int status) throws Exception {
+        mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(status));
+    }
+
+    // JPA's Cache.evictAll() leaves the collection regions, whose cached ids would then be loaded one by one
+    private void cold() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private void get200(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+    }
+
+    @Test
+    void channelFindOne_ShouldLoadEachCollectionOnce() throws Throwable {
+        String url = "/videominer/channels/budget-ch";
+        get200(url);
+        cold();
+        // Channel, its videos, and the comments (with their authors) and captions of each of the 2 videos
+        budget.assertBudget(6, GRAPH_BYTES, () -> get200(url));
+        budget.assertBudget(0, GRAPH_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void videoFindOne_ShouldLoadEachCollectionOnce() throws Throwable {
+        String url = "/videominer/videos/budget-v0";
+        get200(url);
+        cold();
+        budget.assertBudget(3, ENTITY_BYTES, () -> get200(url));
+        budget.assertBudget(0, ENTITY_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void commentFindOne_ShouldJoinTheAuthor() throws Throwable {
+        String url = "/videominer/comments/budget-v0-c0";
+        get200(url);
+        cold();
+        budget.assertBudget(1, ENTITY_BYTES, () -> get200(url));
+        budget.assertBudget(0, ENTITY_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void commentFindAll_ShouldTakeTheAuthorsFromTheCache() throws Throwable {
+        String url = "/videominer/comments?video=budget-v1";
+        get200(url);
+        // A partial first page needs no count query
+        budget.assertBudget(1, ENTITY_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void captionFindOne_ShouldBeServedFromTheCache() throws Throwable {
+        String url = "/videominer/captions/budget-v0-s0";
+        get200(url);
+        cold();
+        budget.assertBudget(1, ENTITY_BYTES, () -> get200(url));
+        budget.assertBudget(0, ENTITY_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void captionFindAll_ShouldRunOneQuery() throws Throwable {
+        String url = "/videominer/captions?language=en&video=budget-v1";
+        get200(url);
+        budget.assertBudget(1, ENTITY_BYTES, () -> get200(url));
+    }
+
+    @Test
+    void captionDelete_ShouldCheckLoadAndDelete() throws Throwable {
+        captionRepository.save(new Caption("budget-delete-0", "Caption", "es"));
+        mockMvc.perform(delete("/videominer/captions/budget-delete-0")).andExpect(status().isNoContent());
+        captionRepository.save(new Caption("budget-delete", "Caption", "es"));
+        cold();
+        // exists query, load and delete
+        budget.assertBudget(3, ENTITY_BYTES,
+                () -> mockMvc.perform(delete("/videominer/captions/budget-delete")).andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void channelCreate_ShouldBatchTheInserts() throws Throwable {
+        write(post("/videominer/channels"), channel("budget-post-0-ch"), 201);
+        cold();
+        // The merge looks up each of the 9 entities (the channel and each video with a collection joined), then one
+        // batched insert per table (channels, videos, captions, authors, comments) and one batched update per
+        // join column (videos, captions, comments)
+        budget.assertBudget(17, GRAPH_BYTES, () -> write(post("/videominer/channels"), channel("budget-post-ch"), 201));
+    }
+
+    @Test
+    void channelUpdate_ShouldMergeTheGraphOnce() throws Throwable {
+        channelRepository.save(channel("budget-put-ch"));
+        write(put("/videominer/channels/budget-put-ch"), channel("budget-put-ch"), 204);
+        cold();
+        // exists query, the channel with its videos, the comments and captions of each of the 2 videos, and the
+        // batched insert of the new authors and update of the comments that reference them
+        budget.assertBudget(8, GRAPH_BYTES, () -> write(put("/videominer/channels/budget-put-ch"), channel("budget-put-ch"), 204));
+    }
+
+    @Test
+    void channelPatch_ShouldRunOneUpdate() throws Throwable {
+        write(patch("/videominer/channels/budget-ch"), Map.of("description", "Patched 0"), 204);
+        cold();
+        // The update, and the load of the updated channel for its change
+        budget.assertBudget(2, ENTITY_BYTES, () -> write(patch("/videominer/channels/budget-ch"), Map.of("description", "Patched"), 204));
+    }
+
+    @Test
+    void videoAppendComments_ShouldBatchTheInserts() throws Throwable {
+        write(post("/videominer/videos/budget-v1/comments:batch"), List.of(new Comment("budget-batch-0", "Comment", "2024-05-12T10:00:00",
+                new User(null, "batch", null, null))), 200);
+        cold();
+        List<Comment> comments = new ArrayList<>();
+        for (int c = 0; c < 5; c++) {
+            comments.add(new Comment("budget-batch-" + (c + 1), "Comment", "2024-05-12T10:00:00", new User(null, "batch" + c, null, null)));
+        }
+        // exists query, the query of the existing ids, the batched inserts of the authors and of the comments, and
+        // the update that links them to the video
+        budget.assertBudget(5, ENTITY_BYTES, () -> write(post("/videominer/videos/budget-v1/comments:batch"), comments, 200));
+    }
+}
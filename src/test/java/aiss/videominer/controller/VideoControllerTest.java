@@ -1,13 +1,24 @@
 package aiss.videominer.controller;
 
+import aiss.videominer.exception.InvalidPatchException;
+import aiss.videominer.exception.UnsupportedWindowException;
 import aiss.videominer.exception.VideoNotFoundException;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
 import aiss.videominer.model.Video;
+import aiss.videominer.repository.CommentRepository;
 import aiss.videominer.repository.VideoRepository;
+import aiss.videominer.service.FuzzySearchService;
+import aiss.videominer.service.MergePatchService;
+import aiss.videominer.service.StatisticsService;
+import aiss.videominer.service.StripedLocks;
+import aiss.videominer.service.TrendingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -16,6 +27,7 @@ import org.springframework.data.domain.PageRequest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +39,24 @@ class VideoControllerTest {
     @Mock
     private VideoRepository videoRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Spy
+    private StripedLocks locks = new StripedLocks(16);
+
+    @Mock
+    private MergePatchService mergePatch;
+
+    @Mock
+    private FuzzySearchService fuzzySearch;
+
+    @Mock
+    private StatisticsService statistics;
+
+    @Mock
+    private TrendingService trending;
+
     @InjectMocks
     private VideoController videoController;
 
@@ -43,7 +73,7 @@ class VideoControllerTest {
         Page<Video> page = new PageImpl<>(Arrays.asList(video));
         when(videoRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
 
-        List<Video> result = videoController.findAll(0, 10, null, null, null);
+        List<Video> result = videoController.findAll(0, 10, null, null, null, null, null);
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
@@ -107,4 +137,92 @@ class VideoControllerTest {
 
         assertThrows(VideoNotFoundException.class, () -> videoController.delete("1"));
     }
+
+    @Test
+    void appendComments_ShouldReturnCreatedAndSkippedIds() throws VideoNotFoundException {
+        // Arrange
+        User author = new User(null, "Test User", "link", "picture");
+        List<Comment> comments = List.of(
+                new Comment("1", "Existing Comment", "2024-05-12", author),
+                new Comment("2", "New Comment", "2024-05-12", author));
+        when(videoRepository.existsById("1")).thenReturn(true);
+        when(commentRepository.appendToVideo("1", comments)).thenReturn(List.of("2"));
+
+        // Act
+        Map<String, List<String>> result = videoController.appendComments(comments, "1");
+
+        // Assert
+        assertEquals(List.of("2"), result.get("created"));
+        assertEquals(List.of("1"), result.get("skipped"));
+    }
+
+    @Test
+    void appendComments_ShouldThrowExceptionWhenVideoNotFound() {
+        when(videoRepository.existsById("1")).thenReturn(false);
+
+        assertThrows(VideoNotFoundException.class, () -> videoController.appendComments(new ArrayList<>(), "1"));
+        verify(commentRepository, never()).appendToVideo(anyString(), anyList());
+    }
+
+    @Test
+    void patch_ShouldApplyMergePatch() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("name", "Updated Video");
+        when(mergePatch.apply(eq(Video.class), eq("1"), eq(patch), anySet())).thenReturn(true);
+
+        assertDoesNotThrow(() -> videoController.patch(patch, "1"));
+    }
+
+    @Test
+    void patch_ShouldThrowExceptionWhenVideoNotFound() throws InvalidPatchException {
+        Map<String, Object> patch = Map.of("name", "Updated Video");
+        when(mergePatch.apply(eq(Video.class), eq("1"), eq(patch), anySet())).thenReturn(false);
+
+        assertThrows(VideoNotFoundException.class, () -> videoController.patch(patch, "1"));
+    }
+
+    @Test
+    void findStats_ShouldReturnStats() throws VideoNotFoundException {
+        StatisticsService.Stats stats = new StatisticsService.Stats(null, 3, 1, Map.of("es", 1L), 2);
+        when(statistics.videoStats("1")).thenReturn(stats);
+
+        assertEquals(stats, videoController.findStats("1"));
+        verifyNoInteractions(videoRepository);
+    }
+
+    @Test
+    void findStats_ShouldThrowExceptionWhenVideoNotFound() {
+        when(statistics.videoStats("1")).thenReturn(null);
+        when(videoRepository.existsById("1")).thenReturn(false);
+
+        assertThrows(VideoNotFoundException.class, () -> videoController.findStats("1"));
+    }
+
+    @Test
+    void findTrending_ShouldReturnTopVideosWithCappedLimit() throws UnsupportedWindowException {
+        List<TrendingService.Trend> top = List.of(new TrendingService.Trend("1", 5, 4.2));
+        when(trending.top("1h", 500)).thenReturn(top);
+
+        List<TrendingService.Trend> result = videoController.findTrending("1h", 10000);
+
+        assertEquals(top, result);
+        verifyNoInteractions(videoRepository);
+    }
+
+    @Test
+    void findAll_ShouldReturnFuzzyMatchesInRankedOrder() throws VideoNotFoundException {
+        Video closest = new Video("2", "Test", "Description", "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        when(fuzzySearch.search("video", "tset", null)).thenReturn(List.of("2", "1", "3"));
+        when(videoRepository.findAllById(List.of("2", "1"))).thenReturn(List.of(video, closest));
+
+        List<Video> result = videoController.findAll(0, 2, null, null, null, "tset", null);
+
+        assertEquals(List.of(closest, video), result);
+    }
+
+    @Test
+    void findAll_ShouldThrowExceptionWhenNoFuzzyMatch() {
+        when(fuzzySearch.search("video", "zzz", 1)).thenReturn(List.of());
+
+        assertThrows(VideoNotFoundException.class, () -> videoController.findAll(0, 10, null, null, null, "zzz", 1));
+    }
 }
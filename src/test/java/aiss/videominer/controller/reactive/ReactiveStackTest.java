@@ -0,0 +1,268 @@
+package aiss.videominer.controller.reactive;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.model.Video;
+import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.repository.reactive.UserRowRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WebFlux endpoints of the reactive profile, over R2DBC on the database whose schema JPA creates.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveStackTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private UserRowRepository userRows;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    private static Channel channel(String id, int videos) {
+        List<Video> list = new ArrayList<>();
+        for (int v = 0; v < videos; v++) {
+            String videoId = id + "-v" + v;
+            List<Comment> comments = new ArrayList<>();
+            for (int c = 0; c < 2; c++) {
+                comments.add(new Comment(videoId + "-c" + c, "Comment " + c, "2024-05-12T10:00:0" + c,
+                        new User(null, "user" + v + c, "https://www.youtube.com/@user" + v + c, null)));
+            }
+            List<Caption> captions = new ArrayList<>(List.of(new Caption(videoId + "-s0", "Caption", "en")));
+            list.add(new Video(videoId, "Video " + v, "Description", "2024-05-12", comments, captions));
+        }
+        return new Channel(id, "Channel " + id, list, "2024-05-12", "Description");
+    }
+
+    private Channel post(Channel channel) {
+        return client.post().uri("/videominer/channels")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(channel)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Channel.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private static List<Long> authorIds(Channel channel) {
+        return channel.getVideos().stream()
+                .flatMap(video -> video.getComments().stream())
+                .map(comment -> comment.getAuthor().getId())
+                .toList();
+    }
+
+    @Test
+    void create_ShouldBeReadBack() {
+        // Act
+        Channel created = post(channel("rx-read", 2));
+
+        // Assert
+        assertEquals(2, created.getVideos().size());
+        client.get().uri("/videominer/channels/rx-read")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Channel rx-read")
+                .jsonPath("$.videos.length()").isEqualTo(2)
+                .jsonPath("$.videos[1].id").isEqualTo("rx-read-v1")
+                .jsonPath("$.videos[1].comments.length()").isEqualTo(2)
+                .jsonPath("$.videos[1].comments[0].author.name").isEqualTo("user10")
+                .jsonPath("$.videos[1].captions[0].language").isEqualTo("en");
+    }
+
+    @Test
+    void findAll_ShouldReturnPage() {
+        // Arrange
+        post(channel("rx-page", 3));
+
+        // Act & Assert
+        client.get().uri("/videominer/videos?containing=Video&order=id&page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+        client.get().uri("/videominer/comments?video=rx-page-v2&order=-id&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo("rx-page-v2-c1");
+    }
+
+    @Test
+    void export_ShouldStreamOneVideoPerLine() {
+        // Arrange
+        post(channel("rx-export", 2));
+
+        // Act
+        List<Video> exported = client.get().uri("/videominer/videos/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Video.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Assert
+        Video video = exported.stream().filter(found -> found.getId().equals("rx-export-v1")).findFirst().orElseThrow();
+        assertEquals(2, video.getComments().size());
+        assertEquals(1, video.getCaptions().size());
+    }
+
+    @Test
+    void delete_ShouldRemoveTheGraphWithItsAuthors() {
+        // Arrange
+        List<Long> authors = authorIds(post(channel("rx-delete", 2)));
+
+        // Act
+        client.delete().uri("/videominer/channels/rx-delete").exchange().expectStatus().isNoContent();
+
+        // Assert
+        client.get().uri("/videominer/channels/rx-delete").exchange().expectStatus().isNotFound();
+        client.get().uri("/videominer/videos/rx-delete-v0").exchange().expectStatus().isNotFound();
+        client.get().uri("/videominer/comments/rx-delete-v0-c0").exchange().expectStatus().isNotFound();
+        client.get().uri("/videominer/captions/rx-delete-v0-s0").exchange().expectStatus().isNotFound();
+        assertEquals(0, userRows.findAllById(authors).count().block());
+        client.delete().uri("/videominer/channels/rx-delete").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void create_ShouldNotReuseTheIdsOfHibernate() {
+        // Act: authors saved by Hibernate before and after the reactive ones
+        List<Long> ids = new ArrayList<>(authorIds(channelRepository.save(channel("rx-ids-jpa-1", 2))));
+        ids.addAll(authorIds(post(channel("rx-ids", 2))));
+        ids.addAll(authorIds(channelRepository.save(channel("rx-ids-jpa-2", 2))));
+
+        // Assert
+        Set<Long> distinct = new HashSet<>(ids);
+        assertEquals(12, ids.size());
+        assertEquals(ids.size(), distinct.size(), () -> "Colliding author ids: " + ids);
+        assertEquals(12, userRows.findAllById(ids).count().block());
+    }
+
+    @Test
+    void create_ShouldRejectCommentWithoutAuthor() {
+        // Arrange
+        Channel channel = channel("rx-invalid", 1);
+        channel.getVideos().get(0).getComments().get(1).setAuthor(null);
+
+        // Act & Assert
+        client.post().uri("/videominer/channels")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(channel)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Comment author cannot be null");
+        client.get().uri("/videominer/channels/rx-invalid").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void writes_ShouldCoverEveryResource() {
+        // Arrange
+        post(channel("rx-writes", 1));
+        Video video = new Video("rx-writes-alone", "Video", "Description", "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        Comment comment = new Comment("rx-writes-comment", "Comment", "2024-05-12T10:00:00", new User(null, "user", null, null));
+
+        // Act
+        client.post().uri("/videominer/videos").contentType(MediaType.APPLICATION_JSON).bodyValue(video)
+                .exchange().expectStatus().isCreated();
+        client.post().uri("/videominer/comments").contentType(MediaType.APPLICATION_JSON).bodyValue(comment)
+                .exchange().expectStatus().isCreated();
+        client.post().uri("/videominer/captions").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Caption("rx-writes-caption", "Caption", "en"))
+                .exchange().expectStatus().isCreated();
+        client.put().uri("/videominer/channels/rx-writes").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Channel("ignored", "Renamed", new ArrayList<>(List.of(video)), "2024-05-12", "Description"))
+                .exchange().expectStatus().isNoContent();
+        client.post().uri("/videominer/videos/rx-writes-alone/comments:batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new Comment("rx-writes-batch", "Batch", "2024-05-12T10:00:00", new User(null, "batch", null, null)),
+                        new Comment("rx-writes-comment", "Skipped", "2024-05-12T10:00:00", new User(null, "batch", null, null))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.created[0]").isEqualTo("rx-writes-batch")
+                .jsonPath("$.skipped[0]").isEqualTo("rx-writes-comment");
+        client.patch().uri("/videominer/videos/rx-writes-alone").contentType(MediaType.valueOf("application/merge-patch+json"))
+                .bodyValue(Map.of("name", "Patched"))
+                .exchange().expectStatus().isNoContent();
+        client.patch().uri("/videominer/captions/rx-writes-caption").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("author", "nobody"))
+                .exchange().expectStatus().isBadRequest();
+        client.put().uri("/videominer/comments/rx-missing").contentType(MediaType.APPLICATION_JSON).bodyValue(comment)
+                .exchange().expectStatus().isNotFound();
+
+        // Assert
+        client.get().uri("/videominer/channels/rx-writes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Renamed")
+                .jsonPath("$.videos.length()").isEqualTo(1)
+                .jsonPath("$.videos[0].name").isEqualTo("Patched")
+                .jsonPath("$.videos[0].comments.length()").isEqualTo(1)
+                .jsonPath("$.videos[0].comments[0].author.name").isEqualTo("batch");
+        client.get().uri("/videominer/videos/rx-writes-v0").exchange().expectStatus().isNotFound();
+        client.get().uri("/videominer/comments/rx-writes-comment")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.author.name").isEqualTo("user");
+    }
+
+    @Test
+    void export_ShouldReadEveryBatchOfConcurrentExports() {
+        // Arrange: more comments than fit in a batch, and more exports than connections in the pool
+        List<Comment> comments = new ArrayList<>();
+        for (int c = 0; c < Paging.EXPORT_BATCH * 2 + 10; c++) {
+            comments.add(new Comment(String.format("rx-pool-c%03d", c), "Comment", "2024-05-12T10:00:00", new User(null, "user" + c, null, null)));
+        }
+        post(new Channel("rx-pool", "Channel", new ArrayList<>(List.of(
+                new Video("rx-pool-v0", "Video", "Description", "2024-05-12", comments, new ArrayList<>()))), "2024-05-12", "Description"));
+
+        // Act
+        List<List<Comment>> exports = Flux.range(0, 12)
+                .flatMap(i -> client.get().uri("/videominer/comments/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .returnResult(Comment.class)
+                        .getResponseBody()
+                        .filter(comment -> comment.getId().startsWith("rx-pool-"))
+                        .collectList())
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        // Assert
+        assertEquals(12, exports.size());
+        for (List<Comment> exported : exports) {
+            assertEquals(comments.size(), exported.size());
+            assertEquals(comments.size(), exported.stream().map(Comment::getId).distinct().count());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package aiss.videominer.filter;
+
+import aiss.videominer.service.RequestCoalescer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescingFilterTest {
+
+    private RequestCoalescer coalescer;
+    private RequestCoalescingFilter filter;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer(5000);
+        filter = new RequestCoalescingFilter(coalescer);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_ShouldNotJoinLeaderStartedBeforeWrite() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        Future<MockHttpServletResponse> stale = executor.submit(() -> get((request, response) -> {
+            renders.incrementAndGet();
+            await(release);
+            response.getOutputStream().write("old".getBytes(StandardCharsets.UTF_8));
+        }));
+        while (coalescer.getStatistics().get("inFlight") == 0) {
+            Thread.onSpinWait();
+        }
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/videominer/channels/1"), written,
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NO_CONTENT));
+
+        // Act
+        // Would wait for the stale leader, and time out, if it joined it
+        MockHttpServletResponse fresh = executor.submit(() -> get((request, response) -> {
+            renders.incrementAndGet();
+            response.getOutputStream().write("new".getBytes(StandardCharsets.UTF_8));
+        })).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpServletResponse.SC_NO_CONTENT, written.getStatus());
+        assertEquals("new", fresh.getContentAsString());
+        assertEquals(2, renders.get());
+        release.countDown();
+        assertEquals("old", stale.get(5, TimeUnit.SECONDS).getContentAsString());
+    }
+
+    @Test
+    void get_ShouldNotStartNewGenerationOnFailedWrite() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest("PUT", "/videominer/channels/1"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NOT_FOUND));
+
+        // Assert
+        assertEquals(0, coalescer.generation());
+    }
+
+    @Test
+    void get_ShouldStartNewGenerationOnWriteThatFailedOnTheServer() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/videominer/channels"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        filter.doFilter(new MockHttpServletRequest("HEAD", "/videominer/channels/1"), new MockHttpServletResponse(),
+                (request, response) -> { });
+
+        // Assert
+        assertEquals(1, coalescer.generation());
+    }
+
+    @Test
+    void get_ShouldCopyHeadersOfLeaderToFollowers() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            HttpServletResponse http = (HttpServletResponse) response;
+            await(release);
+            http.setContentType("application/json");
+            http.setHeader(HttpHeaders.ETAG, "\"1\"");
+            http.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            http.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            http.addHeader(HttpHeaders.SET_COOKIE, "session=leader");
+            http.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        };
+        Future<MockHttpServletResponse> leader = executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setHeader("traceparent", "leader");
+            filter.doFilter(new MockHttpServletRequest("GET", "/videominer/channels/1"), response, chain);
+            return response;
+        });
+        while (coalescer.getStatistics().get("inFlight") == 0) {
+            Thread.onSpinWait();
+        }
+        Future<MockHttpServletResponse> follower = executor.submit(() -> get(chain));
+        while (coalescer.getStatistics().get("waiting") == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        release.countDown();
+        MockHttpServletResponse response = follower.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("{}", leader.get(5, TimeUnit.SECONDS).getContentAsString());
+        assertEquals(1L, coalescer.getStatistics().get("collapsed"));
+        assertEquals("{}", response.getContentAsString());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("\"1\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, response.getHeaders(HttpHeaders.VARY).size());
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+        assertNull(response.getHeader("traceparent"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MockHttpServletResponse get(FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/videominer/channels/1"), response, chain);
+        return response;
+    }
+}
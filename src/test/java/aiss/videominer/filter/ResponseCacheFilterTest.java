@@ -0,0 +1,64 @@
+package aiss.videominer.filter;
+
+import aiss.videominer.service.ResponseCache;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheFilterTest {
+
+    private final ResponseCache.Key channel = new ResponseCache.Key("channels", "1", null, null);
+
+    private ResponseCache cache;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(1024, false);
+        filter = new ResponseCacheFilter(cache);
+        cache.put(channel, "application/json", "{}".getBytes(), cache.generation());
+    }
+
+    @Test
+    void write_ShouldInvalidateResource() throws Exception {
+        for (String method : new String[] { "POST", "PUT", "PATCH", "DELETE" }) {
+            cache.put(channel, "application/json", "{}".getBytes(), cache.generation());
+
+            filter.doFilter(new MockHttpServletRequest(method, "/videominer/channels/1"), new MockHttpServletResponse(),
+                    (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NO_CONTENT));
+
+            assertNull(cache.get(channel), method);
+        }
+    }
+
+    @Test
+    void failedWrite_ShouldInvalidateResource() throws Exception {
+        // A write that failed may have committed in part
+        filter.doFilter(new MockHttpServletRequest("POST", "/videominer/channels/1"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+
+        assertNull(cache.get(channel));
+    }
+
+    @Test
+    void rejectedWrite_ShouldNotInvalidateResource() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("PUT", "/videominer/channels/1"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_NOT_FOUND));
+
+        assertNotNull(cache.get(channel));
+    }
+
+    @Test
+    void headAndOptions_ShouldNotInvalidateResource() throws Exception {
+        for (String method : new String[] { "HEAD", "OPTIONS" }) {
+            filter.doFilter(new MockHttpServletRequest(method, "/videominer/channels/1"), new MockHttpServletResponse(),
+                    (request, response) -> { });
+
+            assertNotNull(cache.get(channel), method);
+        }
+    }
+}
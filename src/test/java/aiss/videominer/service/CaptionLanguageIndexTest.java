@@ -0,0 +1,62 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CaptionLanguageIndexTest {
+
+    private OwnershipIndex ownership;
+    private CaptionLanguageIndex index;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        ownership = new OwnershipIndex();
+        index = new CaptionLanguageIndex(new ChangeLog(10, ownership), ownership);
+    }
+
+    private void caption(String id, String videoId, String language, Change.Operation operation) {
+        ownership.captionInVideo(id, videoId);
+        Caption caption = new Caption(id, "Caption " + id, language);
+        index.onChanges(List.of(new Change(++seq, "captions", id, operation, 0, null, null, AttributeStaging.of(caption))));
+    }
+
+    private static CaptionLanguageIndex.LanguageFacet facet(String language, long videos) {
+        return new CaptionLanguageIndex.LanguageFacet(language, videos);
+    }
+
+    @Test
+    void facets_ShouldCountVideosOncePerLanguage() {
+        caption("1", "v1", "en", Change.Operation.CREATED);
+        caption("2", "v1", "en", Change.Operation.CREATED);
+        caption("3", "v1", "es", Change.Operation.CREATED);
+        caption("4", "v2", "en", Change.Operation.CREATED);
+        caption("5", "v2", null, Change.Operation.CREATED);
+
+        assertEquals(List.of(facet("en", 2), facet("es", 1), facet("unknown", 1)), index.facets());
+        assertEquals(3, index.dictionarySize());
+    }
+
+    @Test
+    void facets_ShouldFollowUpdatesAndDeletes() {
+        caption("1", "v1", "en", Change.Operation.CREATED);
+        caption("2", "v1", "en", Change.Operation.CREATED);
+        caption("3", "v2", "es", Change.Operation.CREATED);
+
+        caption("1", "v1", "fr", Change.Operation.UPDATED);
+        assertEquals(List.of(facet("en", 1), facet("es", 1), facet("fr", 1)), index.facets());
+
+        caption("2", "v1", "en", Change.Operation.DELETED);
+        index.onChanges(List.of(new Change(++seq, "videos", "v2", Change.Operation.DELETED, 0, null, null)));
+        assertEquals(List.of(facet("fr", 1)), index.facets());
+
+        // Codes are kept, so languages coming back reuse them
+        caption("4", "v3", "en", Change.Operation.CREATED);
+        assertEquals(3, index.dictionarySize());
+    }
+}
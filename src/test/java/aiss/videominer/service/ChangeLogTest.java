@@ -0,0 +1,113 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogTest {
+
+    @Test
+    void since_ShouldReturnChangesInOrder() throws ChangesExpiredException {
+        // Arrange
+        ChangeLog changeLog = new ChangeLog(10, new OwnershipIndex());
+        changeLog.recordAfterCommit("channels", "1", Change.Operation.CREATED);
+        changeLog.recordAfterCommit("videos", "2", Change.Operation.UPDATED);
+        changeLog.recordAfterCommit("comments", "3", Change.Operation.DELETED);
+
+        // Act
+        List<Change> changes = changeLog.since(1, 10);
+
+        // Assert
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(0).seq());
+        assertEquals("videos", changes.get(0).resource());
+        assertEquals(Change.Operation.DELETED, changes.get(1).operation());
+        assertEquals(3, changeLog.lastSeq());
+    }
+
+    @Test
+    void since_ShouldRespectLimit() throws ChangesExpiredException {
+        ChangeLog changeLog = new ChangeLog(10, new OwnershipIndex());
+        for (int i = 0; i < 5; i++) {
+            changeLog.recordAfterCommit("comments", String.valueOf(i), Change.Operation.CREATED);
+        }
+
+        List<Change> changes = changeLog.since(0, 2);
+
+        assertEquals(2, changes.size());
+        assertEquals("1", changes.get(1).id());
+    }
+
+    @Test
+    void since_ShouldThrowExceptionWhenChangesExpired() {
+        ChangeLog changeLog = new ChangeLog(2, new OwnershipIndex());
+        for (int i = 0; i < 5; i++) {
+            changeLog.recordAfterCommit("comments", String.valueOf(i), Change.Operation.CREATED);
+        }
+
+        assertThrows(ChangesExpiredException.class, () -> changeLog.since(1, 10));
+        assertDoesNotThrow(() -> changeLog.since(3, 10));
+    }
+
+    @Test
+    void subscribe_ShouldDeliverBacklogThenNewChangesWithChannel() throws ChangesExpiredException {
+        OwnershipIndex ownership = new OwnershipIndex();
+        ownership.videoInChannel("v1", "c1");
+        ownership.commentInVideo("m1", "v1");
+        ChangeLog changeLog = new ChangeLog(10, ownership);
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.CREATED);
+        List<Change> received = new ArrayList<>();
+
+        changeLog.subscribe(0, received::addAll);
+        changeLog.recordAfterCommit("comments", "m1", Change.Operation.CREATED);
+
+        assertEquals(2, received.size());
+        assertEquals(1, received.get(0).seq());
+        assertEquals("c1", received.get(1).channelId());
+    }
+
+    @Test
+    void recordAfterCommit_ShouldCarryTheAttributesOfEachChange() {
+        ChangeLog changeLog = new ChangeLog(10, new OwnershipIndex());
+        List<Change> received = new ArrayList<>();
+        changeLog.addListener(received::addAll);
+
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.UPDATED, Map.of(AttributeStaging.NAME, "First"));
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.UPDATED, Map.of(AttributeStaging.NAME, "Second"));
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.UPDATED);
+
+        assertEquals("First", received.get(0).attribute(AttributeStaging.NAME));
+        assertEquals("Second", received.get(1).attribute(AttributeStaging.NAME));
+        assertNull(received.get(2).attribute(AttributeStaging.NAME));
+    }
+
+    @Test
+    void recordAfterCommit_ShouldDiscardRolledBackChanges() {
+        // Arrange
+        ChangeLog changeLog = new ChangeLog(10, new OwnershipIndex());
+        List<Change> received = new ArrayList<>();
+        changeLog.addListener(received::addAll);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.recordAfterCommit("videos", "v1", Change.Operation.UPDATED, Map.of(AttributeStaging.NAME, "Rolled back"));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.UPDATED);
+
+        // Assert
+        assertEquals(1, received.size());
+        assertNull(received.get(0).attribute(AttributeStaging.NAME));
+    }
+}
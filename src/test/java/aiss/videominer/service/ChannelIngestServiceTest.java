@@ -0,0 +1,130 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChannelIngestException;
+import aiss.videominer.model.Channel;
+import aiss.videominer.model.Video;
+import aiss.videominer.repository.ChannelRepository;
+import aiss.videominer.repository.VideoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChannelIngestServiceTest {
+
+    @Mock
+    private ChannelRepository channelRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final OwnershipIndex ownership = new OwnershipIndex();
+
+    private ChannelIngestService ingest;
+
+    @BeforeEach
+    void setUp() {
+        ingest = new ChannelIngestService(channelRepository, videoRepository, transactionTemplate, ownership, 2, 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingest.shutdown();
+    }
+
+    private static Channel channel(int videos) {
+        List<Video> list = new ArrayList<>();
+        for (int i = 0; i < videos; i++) {
+            list.add(new Video("v" + i, "Test Video", "Test description", "2024-05-12", new ArrayList<>(), new ArrayList<>()));
+        }
+        return new Channel("1", "Test Channel", list, "2024-05-12", "Test description");
+    }
+
+    private void stubWrites() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(channelRepository.save(any(Channel.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(videoRepository.getReferenceById(anyString())).thenAnswer(invocation -> {
+            Video reference = new Video();
+            reference.setId(invocation.getArgument(0));
+            return reference;
+        });
+    }
+
+    @Test
+    void ingest_ShouldSaveSmallChannelInCascade() throws ChannelIngestException {
+        // Arrange
+        Channel channel = channel(2);
+        when(channelRepository.save(channel)).thenReturn(channel);
+
+        // Act
+        Channel saved = ingest.ingest(channel);
+
+        // Assert
+        assertSame(channel, saved);
+        verifyNoInteractions(videoRepository, transactionTemplate);
+    }
+
+    @Test
+    void ingest_ShouldWritePartitionsAndLinkThemToChannel() throws ChannelIngestException {
+        // Arrange
+        Channel channel = channel(5);
+        stubWrites();
+        when(videoRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Video>>getArgument(0)));
+
+        // Act
+        Channel saved = ingest.ingest(channel);
+
+        // Assert
+        verify(videoRepository, times(3)).saveAll(anyList());
+        ArgumentCaptor<Channel> linked = ArgumentCaptor.forClass(Channel.class);
+        verify(channelRepository).save(linked.capture());
+        assertEquals(List.of("v0", "v1", "v2", "v3", "v4"), linked.getValue().getVideos().stream().map(Video::getId).toList());
+        assertEquals(5, saved.getVideos().size());
+        assertEquals("1", ownership.channelOfVideo("v4"));
+    }
+
+    @Test
+    void ingest_ShouldReportFailedPartitionAndLinkTheOthers() {
+        // Arrange
+        Channel channel = channel(5);
+        ownership.videoInChannel("v2", "previous");
+        stubWrites();
+        when(videoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Video> partition = invocation.getArgument(0);
+            if (partition.get(0).getId().equals("v2")) {
+                throw new IllegalStateException("Test failure");
+            }
+            return new ArrayList<>(partition);
+        });
+
+        // Act
+        ChannelIngestException exception = assertThrows(ChannelIngestException.class, () -> ingest.ingest(channel));
+
+        // Assert
+        assertEquals(1, exception.getErrors().size());
+        assertTrue(exception.getErrors().get(0).equals("Partition 1 (videos 2 to 3) could not be saved"));
+        ArgumentCaptor<Channel> linked = ArgumentCaptor.forClass(Channel.class);
+        verify(channelRepository).save(linked.capture());
+        assertEquals(List.of("v0", "v1", "v4"), linked.getValue().getVideos().stream().map(Video::getId).toList());
+        assertEquals(List.of("v0", "v1", "v4"), exception.getChannel().getVideos().stream().map(Video::getId).toList());
+        // The videos of the failed partition stay where they were
+        assertEquals("previous", ownership.channelOfVideo("v2"));
+        assertNull(ownership.channelOfVideo("v3"));
+        assertEquals("1", ownership.channelOfVideo("v4"));
+    }
+}
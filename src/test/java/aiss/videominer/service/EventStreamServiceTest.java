@@ -0,0 +1,46 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChangesExpiredException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventStreamServiceTest {
+
+    private final ChangeLog changeLog = new ChangeLog(2, new OwnershipIndex());
+    private EventStreamService events;
+
+    @AfterEach
+    void tearDown() {
+        events.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldNotKeepSubscriberWhenChangesExpired() {
+        // Arrange
+        events = new EventStreamService(changeLog, 10, EventStreamService.OverflowPolicy.DROP, 60000, 1, false);
+        for (int i = 0; i < 5; i++) {
+            changeLog.recordAfterCommit("comments", String.valueOf(i), Change.Operation.CREATED);
+        }
+
+        // Act & Assert
+        assertThrows(ChangesExpiredException.class, () -> events.subscribe(null, null, 0L));
+        assertEquals(0, events.getStatistics().get("subscribers"));
+    }
+
+    @Test
+    void subscribe_ShouldNotKeepSubscriberDisconnectedByTheBacklog() throws ChangesExpiredException {
+        // Arrange
+        events = new EventStreamService(changeLog, 1, EventStreamService.OverflowPolicy.DISCONNECT, 60000, 1, false);
+        changeLog.recordAfterCommit("comments", "1", Change.Operation.CREATED);
+        changeLog.recordAfterCommit("comments", "2", Change.Operation.CREATED);
+
+        // Act
+        events.subscribe(null, null, 0L);
+
+        // Assert
+        assertEquals(0, events.getStatistics().get("subscribers"));
+        assertEquals(1L, events.getStatistics().get("disconnected"));
+    }
+}
@@ -0,0 +1,77 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzySearchServiceTest {
+
+    private FuzzySearchService fuzzySearch;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        fuzzySearch = new FuzzySearchService(new ChangeLog(10, new OwnershipIndex()), 2);
+    }
+
+    private void video(String id, String name, Change.Operation operation) {
+        Video video = new Video(id, name, null, "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        fuzzySearch.onChanges(List.of(new Change(++seq, "videos", id, operation, 0, null, null, AttributeStaging.of(video))));
+    }
+
+    @Test
+    void search_ShouldRankByDistance() {
+        video("1", "Veritasium", Change.Operation.CREATED);
+        video("2", "Vsauce", Change.Operation.CREATED);
+        video("3", "Veritasum", Change.Operation.CREATED);
+
+        assertEquals(List.of("1", "3"), fuzzySearch.search("video", "veritasium", null));
+        assertEquals(List.of("3", "1"), fuzzySearch.search("video", "Veritasum", 1));
+        assertEquals(List.of("2"), fuzzySearch.search("video", "vsouce", 5));
+    }
+
+    @Test
+    void search_ShouldFollowRenamesAndDeletes() {
+        video("1", "Old name", Change.Operation.CREATED);
+        video("1", "New name", Change.Operation.UPDATED);
+        video("2", "New game", Change.Operation.CREATED);
+        video("2", "New game", Change.Operation.DELETED);
+
+        assertEquals(List.of(), fuzzySearch.search("video", "old name", 0));
+        assertEquals(List.of("1"), fuzzySearch.search("video", "new nam", 2));
+    }
+
+    @Test
+    void search_ShouldMatchAFullScan() {
+        Random random = new Random(3);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 3 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                name.append((char) ('a' + random.nextInt(4)));
+            }
+            names.add(name.toString());
+            video(String.valueOf(i), name.toString(), Change.Operation.CREATED);
+        }
+        for (int i = 0; i < 500; i += 3) {
+            video(String.valueOf(i), names.get(i), Change.Operation.DELETED);
+        }
+
+        for (String query : List.of("abc", "dddd", "abcabc")) {
+            long expected = 0;
+            for (int i = 0; i < names.size(); i++) {
+                if (i % 3 != 0 && FuzzySearchService.levenshtein(query, names.get(i)) <= 2) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, fuzzySearch.search("video", query, 2).size(), query);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package aiss.videominer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void estimate_ShouldBeExactForFewValues() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        for (int i = 0; i < 10; i++) {
+            sketch.add("user" + i);
+            sketch.add("user" + i);
+        }
+
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    void estimate_ShouldBeCloseForManyValues() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 100000; i++) {
+            sketch.add("https://youtube.com/c/" + i);
+        }
+
+        assertEquals(100000, sketch.estimate(), 100000 * 0.05);
+    }
+}
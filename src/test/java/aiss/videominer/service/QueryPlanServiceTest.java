@@ -0,0 +1,101 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.StatementCaptureDisabledException;
+import aiss.videominer.exception.UnsupportedQueryException;
+import aiss.videominer.model.Channel;
+import aiss.videominer.repository.ChannelRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "videominer.explain.large-table-rows=" + QueryPlanServiceTest.LARGE_TABLE_ROWS)
+public class QueryPlanServiceTest {
+
+    static final int LARGE_TABLE_ROWS = 100;
+
+    @Autowired
+    private QueryPlanService queryPlans;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Test
+    void explain_ShouldRunQueriesServedByTheCaches() throws Exception {
+        // Arrange: the channel and the query results are cached once read
+        channelRepository.save(new Channel("plan-ch", "Plan channel", new ArrayList<>(), "2024-05-12", "Description"));
+        channelRepository.findById("plan-ch");
+        channelRepository.findByName("Plan channel", PageRequest.of(0, 10));
+
+        // Act
+        QueryPlanService.Explanation byId = queryPlans.explain("ChannelRepository", "findById", List.of("plan-ch"), 0, 10, false);
+        QueryPlanService.Explanation byName = queryPlans.explain("ChannelRepository", "findByName", List.of("Plan channel"), 0, 10, false);
+
+        // Assert
+        assertFalse(byId.statements().isEmpty());
+        assertNotNull(byId.statements().get(0).plan());
+        assertFalse(byName.statements().isEmpty());
+    }
+
+    // More channels than a large table has
+    private void seedLargeTable() {
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i <= LARGE_TABLE_ROWS; i++) {
+            channels.add(new Channel("plan-scan-" + i, "Scanned channel " + i, new ArrayList<>(), "2024-05-12", "Description"));
+        }
+        channelRepository.saveAll(channels);
+    }
+
+    @Test
+    void explain_ShouldFlagScansOfLargeTables() throws Exception {
+        // Arrange
+        seedLargeTable();
+
+        // Act: a LIKE with a leading wildcard cannot use an index
+        QueryPlanService.Explanation explanation = queryPlans.explain("ChannelRepository", "findByNameContaining", List.of("channel 7"), 0, 10, false);
+
+        // Assert
+        assertTrue(explanation.statements().stream().anyMatch(plan -> plan.largeTableScans().stream().anyMatch(scan -> scan.startsWith("CHANNEL "))),
+                () -> "No large table scan in " + explanation.statements());
+    }
+
+    @Test
+    void explain_ShouldNotFlagIndexedLookups() throws Exception {
+        // Arrange
+        seedLargeTable();
+
+        // Act
+        QueryPlanService.Explanation explanation = queryPlans.explain("ChannelRepository", "findById", List.of("plan-scan-7"), 0, 0, false);
+
+        // Assert
+        assertFalse(explanation.statements().isEmpty());
+        assertTrue(explanation.statements().stream().allMatch(plan -> plan.largeTableScans().isEmpty()),
+                () -> "Unexpected large table scan in " + explanation.statements());
+    }
+
+    @Test
+    void explain_ShouldIgnoreThePageOfMethodsWithoutPageable() throws Exception {
+        QueryPlanService.Explanation explanation = queryPlans.explain("ChannelRepository", "findById", List.of("plan-none"), 0, 0, false);
+
+        assertEquals(1, explanation.statements().size());
+    }
+
+    @Test
+    void explain_ShouldRejectInvalidPage() {
+        assertThrows(UnsupportedQueryException.class,
+                () -> queryPlans.explain("ChannelRepository", "findByName", List.of("Plan channel"), 0, 0, false));
+    }
+
+    @Test
+    void explain_ShouldFailWithoutStatementCapture() {
+        QueryPlanService disabled = new QueryPlanService(null, null, null, 1000, false);
+
+        assertThrows(StatementCaptureDisabledException.class,
+                () -> disabled.explain("ChannelRepository", "findById", List.of("plan-ch"), 0, 10, false));
+    }
+}
@@ -0,0 +1,109 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.ChannelNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer(5000);
+    }
+
+    @Test
+    void execute_ShouldShareInFlightResult() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        results.add(executor.submit(() -> coalescer.execute("channel/1", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "channel";
+        })));
+        while (coalescer.getStatistics().get("inFlight") == 0) {
+            Thread.onSpinWait();
+        }
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> coalescer.execute("channel/1", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (coalescer.getStatistics().get("waiting") < 3) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("channel", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(3L, coalescer.getStatistics().get("collapsed"));
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldLoadAgainWhenTimeoutExpires() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> leader = executor.submit(() -> coalescer.execute("channel/1", Duration.ofMillis(10), () -> {
+            release.await();
+            return "leader";
+        }));
+        while (coalescer.getStatistics().get("inFlight") == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        String result = coalescer.execute("channel/1", () -> "follower");
+
+        // Assert
+        assertEquals("follower", result);
+        assertEquals(1L, coalescer.getStatistics().get("timeouts"));
+        release.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void invalidate_ShouldStartNewGeneration() {
+        // Arrange
+        long before = coalescer.generation();
+
+        // Act
+        coalescer.invalidate();
+
+        // Assert
+        assertEquals(before + 1, coalescer.generation());
+        assertEquals(before + 1, coalescer.getStatistics().get("generation"));
+    }
+
+    @Test
+    void execute_ShouldPropagateCheckedException() {
+        assertThrows(ChannelNotFoundException.class, () -> coalescer.execute("channel/1", () -> {
+            throw new ChannelNotFoundException();
+        }));
+        assertEquals(0L, coalescer.getStatistics().get("inFlight"));
+    }
+}
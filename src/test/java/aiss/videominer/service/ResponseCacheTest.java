@@ -0,0 +1,72 @@
+package aiss.videominer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    private ResponseCache cache;
+
+    private final ResponseCache.Key channel = new ResponseCache.Key("channels", "1", null, "application/json");
+    private final ResponseCache.Key video = new ResponseCache.Key("videos", "2", null, "application/json");
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(10, true);
+    }
+
+    @Test
+    void get_ShouldReturnStoredBytes() {
+        cache.put(channel, "application/json", "{}".getBytes(), cache.generation());
+
+        ResponseCache.Entry entry = cache.get(channel);
+
+        assertNotNull(entry);
+        assertEquals("application/json", entry.contentType());
+        assertEquals(2, entry.content().remaining());
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedWhenBytesExceeded() {
+        // Arrange
+        cache.put(channel, "application/json", new byte[6], cache.generation());
+
+        // Act
+        cache.put(video, "application/json", new byte[6], cache.generation());
+
+        // Assert
+        assertNull(cache.get(channel));
+        assertNotNull(cache.get(video));
+        assertEquals(1L, cache.getStatistics().get("evictions"));
+        assertEquals(6L, cache.getStatistics().get("bytes"));
+    }
+
+    @Test
+    void put_ShouldIgnoreBodyRenderedBeforeInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate("channels", "1");
+
+        cache.put(channel, "application/json", "{}".getBytes(), generation);
+
+        assertNull(cache.get(channel));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveResourceAndOtherResources() {
+        // Arrange
+        ResponseCache.Key otherChannel = new ResponseCache.Key("channels", "3", null, "application/json");
+        cache.put(channel, "application/json", new byte[2], cache.generation());
+        cache.put(otherChannel, "application/json", new byte[2], cache.generation());
+        cache.put(video, "application/json", new byte[2], cache.generation());
+
+        // Act
+        cache.invalidate("channels", "1");
+
+        // Assert
+        assertNull(cache.get(channel));
+        assertNull(cache.get(video));
+        assertNotNull(cache.get(otherChannel));
+    }
+}
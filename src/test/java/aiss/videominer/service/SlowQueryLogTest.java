@@ -0,0 +1,43 @@
+package aiss.videominer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    @Test
+    void fingerprint_ShouldReplaceLiteralsAndInLists() {
+        assertEquals("select c1_0.id from channel c1_0 where c1_0.name=? and c1_0.id in (?...) offset ? rows",
+                SlowQueryLog.fingerprint("select c1_0.id\n  from channel c1_0 where c1_0.name='it''s' and c1_0.id in (?, ?,?) offset 20 rows"));
+    }
+
+    @Test
+    void top_ShouldRankFingerprintsByTotalTime() {
+        SlowQueryLog log = new SlowQueryLog(1000, 100);
+        log.record("select * from video where id=1", 3_000_000, 1);
+        log.record("select * from video where id=2", 3_000_000, 1);
+        log.record("select * from channel", 5_000_000, 40);
+
+        List<SlowQueryLog.Fingerprint> top = log.top(10);
+
+        assertEquals(2, top.size());
+        assertEquals(new SlowQueryLog.Fingerprint("select * from video where id=?", 2, 2, 6.0, 3.0), top.get(0));
+        assertEquals("select * from channel", top.get(1).sql());
+        assertEquals(1, log.top(1).size());
+    }
+
+    @Test
+    void record_ShouldBoundTheFingerprints() {
+        SlowQueryLog log = new SlowQueryLog(1000, 2);
+        log.record("select a from t", 1, 0);
+        log.record("select b from t", 1, 0);
+        log.record("select c from t", 1, 0);
+        log.record("select d from t", 1, 0);
+
+        assertEquals(3, log.top(10).size());
+        assertTrue(log.top(10).stream().anyMatch(f -> f.sql().equals(SlowQueryLog.OTHER) && f.executions() == 2));
+    }
+}
@@ -0,0 +1,117 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatisticsServiceTest {
+
+    private ChangeLog changeLog;
+    private OwnershipIndex ownership;
+    private StatisticsService statistics;
+
+    @BeforeEach
+    void setUp() {
+        ownership = new OwnershipIndex();
+        changeLog = new ChangeLog(100, ownership);
+        statistics = new StatisticsService(changeLog, ownership, 10);
+        ownership.videoInChannel("v1", "c1");
+        changeLog.recordAfterCommit("channels", "c1", Change.Operation.CREATED);
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.CREATED);
+    }
+
+    private void comment(String id, String author) {
+        Comment comment = new Comment(id, "text", "2024-05-12", new User(null, author, null, null));
+        ownership.commentInVideo(id, "v1");
+        changeLog.recordAfterCommit("comments", id, Change.Operation.CREATED, AttributeStaging.of(comment));
+    }
+
+    @Test
+    void stats_ShouldCountCommentsAndDistinctCommenters() {
+        comment("m1", "Ana");
+        comment("m2", "Ana");
+        comment("m3", "Luis");
+
+        StatisticsService.Stats video = statistics.videoStats("v1");
+        StatisticsService.Stats channel = statistics.channelStats("c1");
+
+        assertEquals(3, video.comments());
+        assertEquals(2, video.distinctCommenters());
+        assertNull(video.videos());
+        assertEquals(1, channel.videos());
+        assertEquals(3, channel.comments());
+    }
+
+    @Test
+    void stats_ShouldTrackCaptionLanguagesAndDeletes() {
+        Caption caption = new Caption("k1", "Subtitles", "es");
+        ownership.captionInVideo("k1", "v1");
+        changeLog.recordAfterCommit("captions", "k1", Change.Operation.CREATED, AttributeStaging.of(caption));
+        comment("m1", "Ana");
+
+        caption.setLanguage("en");
+        changeLog.recordAfterCommit("captions", "k1", Change.Operation.UPDATED, AttributeStaging.of(caption));
+        changeLog.recordAfterCommit("comments", "m1", Change.Operation.DELETED);
+
+        StatisticsService.Stats stats = statistics.channelStats("c1");
+        assertEquals(1, stats.captions());
+        assertEquals(Map.of("en", 1L), stats.captionsByLanguage());
+        assertEquals(0, stats.comments());
+    }
+
+    @Test
+    void stats_ShouldCountVideoAddedToChannelAfterItsCreation() {
+        // Arrange
+        changeLog.recordAfterCommit("videos", "v2", Change.Operation.CREATED);
+
+        // Act
+        ownership.videoInChannel("v2", "c1");
+
+        // Assert
+        assertEquals(2, statistics.channelStats("c1").videos());
+    }
+
+    @Test
+    void stats_ShouldMoveVideoBetweenChannels() {
+        // Arrange
+        changeLog.recordAfterCommit("channels", "c2", Change.Operation.CREATED);
+
+        // Act
+        ownership.videoInChannel("v1", "c2");
+        ownership.videoInChannel("v1", "c2");
+
+        // Assert
+        assertEquals(0, statistics.channelStats("c1").videos());
+        assertEquals(1, statistics.channelStats("c2").videos());
+        changeLog.recordAfterCommit("videos", "v1", Change.Operation.DELETED);
+        assertEquals(0, statistics.channelStats("c2").videos());
+    }
+
+    @Test
+    void stats_ShouldDiscardMovesOfRolledBackTransaction() {
+        // Arrange
+        changeLog.recordAfterCommit("channels", "c2", Change.Operation.CREATED);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ownership.videoInChannel("v1", "c2");
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(1, statistics.channelStats("c1").videos());
+        assertEquals(0, statistics.channelStats("c2").videos());
+    }
+}
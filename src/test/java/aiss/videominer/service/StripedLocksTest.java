@@ -0,0 +1,160 @@
+package aiss.videominer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLocksTest {
+
+    @Test
+    void constructor_ShouldRoundStripesUpToPowerOfTwo() {
+        assertEquals(1, new StripedLocks(0).stripeCount());
+        assertEquals(1, new StripedLocks(1).stripeCount());
+        assertEquals(2, new StripedLocks(2).stripeCount());
+        assertEquals(4, new StripedLocks(3).stripeCount());
+        assertEquals(256, new StripedLocks(256).stripeCount());
+        assertEquals(512, new StripedLocks(257).stripeCount());
+    }
+
+    @Test
+    void withLock_ShouldSerializeWritesOnSameId() throws Exception {
+        // Arrange
+        StripedLocks locks = new StripedLocks(16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(8);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                start.countDown();
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    locks.runWithLock("video", "1", () -> {
+                        if (inside.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        Thread.yield();
+                        inside.decrementAndGet();
+                    });
+                }
+                return null;
+            }));
+        }
+
+        // Assert
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(0, overlaps.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void withLock_ShouldNotBlockOtherStripes() throws Exception {
+        // Arrange
+        StripedLocks locks = new StripedLocks(16);
+        String other = otherStripe(locks, "video", "1");
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> {
+            locks.runWithLock("video", "1", () -> {
+                held.countDown();
+                release.await();
+            });
+            return null;
+        });
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertEquals("free", locks.withLock("video", other, () -> "free"));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void runWithLocks_ShouldWaitForEveryKey() throws Exception {
+        // Arrange
+        StripedLocks locks = new StripedLocks(16);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> holder = executor.submit(() -> {
+            locks.runWithLock("video", "v2", () -> {
+                held.countDown();
+                release.await();
+            });
+            return null;
+        });
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Future<?> writer = executor.submit(() -> locks.runWithLocks(
+                Map.of("channel", List.of("c1"), "video", List.of("v1", "v2")), entered::countDown));
+
+        // Assert
+        assertFalse(entered.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        holder.get(5, TimeUnit.SECONDS);
+        writer.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void runWithLocks_ShouldNotDeadlockOnOverlappingKeys() throws Exception {
+        // Arrange
+        StripedLocks locks = new StripedLocks(4);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(2);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        Future<?> first = executor.submit(() -> {
+            start.countDown();
+            start.await();
+            for (int i = 0; i < 1000; i++) {
+                locks.runWithLocks(Map.of("channel", List.of("a"), "video", List.of("1", "2", "3")), runs::incrementAndGet);
+            }
+            return null;
+        });
+        Future<?> second = executor.submit(() -> {
+            start.countDown();
+            start.await();
+            for (int i = 0; i < 1000; i++) {
+                locks.runWithLocks(Map.of("channel", List.of("b"), "video", List.of("3", "2", "1")), runs::incrementAndGet);
+            }
+            return null;
+        });
+
+        // Assert
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(2000, runs.get());
+        executor.shutdown();
+    }
+
+    private static String otherStripe(StripedLocks locks, String scope, String id) {
+        int stripe = locks.index(scope, id);
+        for (int i = 0; ; i++) {
+            if (locks.index(scope, "other-" + i) != stripe) {
+                return "other-" + i;
+            }
+        }
+    }
+}
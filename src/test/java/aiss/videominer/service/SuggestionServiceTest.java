@@ -0,0 +1,108 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionServiceTest {
+
+    private OwnershipIndex ownership;
+    private SuggestionService suggestions;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        ownership = new OwnershipIndex();
+        suggestions = new SuggestionService(new ChangeLog(10, ownership), ownership, 5);
+    }
+
+    private void video(String id, String name, Change.Operation operation) {
+        Video video = new Video(id, name, null, "2024-05-12", new ArrayList<>(), new ArrayList<>());
+        suggestions.onChanges(List.of(new Change(++seq, "videos", id, operation, 0, null, null, AttributeStaging.of(video))));
+    }
+
+    private void comment(String videoId, Change.Operation operation) {
+        String commentId = "m" + (++seq);
+        ownership.commentInVideo(commentId, videoId);
+        suggestions.onChanges(List.of(new Change(seq, "comments", commentId, operation, 0, null, null)));
+    }
+
+    private List<String> names(String prefix, int limit) {
+        return suggestions.suggest("video", prefix, limit).stream().map(SuggestionService.Suggestion::name).toList();
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixIgnoringCaseAndAccents() {
+        video("1", "Canción de cuna", Change.Operation.CREATED);
+        video("2", "Cancun vlog", Change.Operation.CREATED);
+        video("3", "Tutorial Java", Change.Operation.CREATED);
+        comment("2", Change.Operation.CREATED);
+
+        assertEquals(List.of("Cancun vlog", "Canción de cuna"), names("CANC", 10));
+        assertEquals(List.of("Canción de cuna"), names("cancio", 10));
+        assertEquals(List.of(), names("x", 10));
+        assertNull(suggestions.suggest("comment", "a", 10));
+    }
+
+    @Test
+    void suggest_ShouldFollowRenamesAndDeletes() {
+        video("1", "Old name", Change.Operation.CREATED);
+        video("1", "New name", Change.Operation.UPDATED);
+        video("2", "Nothing", Change.Operation.CREATED);
+        video("2", "Nothing", Change.Operation.DELETED);
+
+        assertEquals(List.of(), names("old", 10));
+        assertEquals(List.of("New name"), names("n", 10));
+    }
+
+    @Test
+    void suggest_ShouldKeepNameOnChangesWithoutName() {
+        video("1", "Veritasium", Change.Operation.CREATED);
+
+        // e.g. the update of a video that only gained comments
+        suggestions.onChanges(List.of(new Change(++seq, "videos", "1", Change.Operation.UPDATED, 0, null, null)));
+
+        assertEquals(List.of("Veritasium"), names("v", 10));
+    }
+
+    @Test
+    void suggest_ShouldReturnMostPopularLikeAFullScan() {
+        Random random = new Random(7);
+        Map<String, String> names = new HashMap<>();
+        Map<String, Integer> comments = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String name = "v" + Integer.toString(random.nextInt(2000), 4);
+            names.put(String.valueOf(i), name);
+            comments.put(String.valueOf(i), 0);
+            video(String.valueOf(i), name, Change.Operation.CREATED);
+        }
+        for (int i = 0; i < 3000; i++) {
+            String id = String.valueOf(random.nextInt(300));
+            boolean delete = comments.get(id) > 0 && random.nextInt(4) == 0;
+            comments.merge(id, delete ? -1 : 1, Integer::sum);
+            comment(id, delete ? Change.Operation.DELETED : Change.Operation.CREATED);
+        }
+
+        for (String prefix : List.of("", "v", "v1", "v23", "v302")) {
+            List<Long> expected = names.keySet().stream()
+                    .filter(id -> names.get(id).startsWith(prefix))
+                    .map(id -> (long) comments.get(id))
+                    .sorted(Comparator.reverseOrder())
+                    .limit(5)
+                    .toList();
+            List<Long> actual = suggestions.suggest("video", prefix, 10).stream()
+                    .map(SuggestionService.Suggestion::popularity)
+                    .toList();
+            assertEquals(expected, actual, "prefix " + prefix);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package aiss.videominer.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedDataSourceTest {
+
+    private SlowQueryLog slowQueryLog;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        slowQueryLog = new SlowQueryLog(1000, 100);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("slowQueryLog", slowQueryLog);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource = (DataSource) new TimedDataSource(beans.getBeanProvider(SlowQueryLog.class),
+                beans.getBeanProvider(Tracing.class), true)
+                .postProcessAfterInitialization(h2, "dataSource");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("create table video(id int primary key, name varchar)");
+        }
+        slowQueryLog.reset();
+    }
+
+    private int select(Connection connection, int maxId) throws Exception {
+        int rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement("select * from video where id < ?")) {
+            statement.setInt(1, maxId);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void statements_ShouldBeRecordedWithTheirRows() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement insert = connection.prepareStatement("insert into video values (?, 'name')");
+            for (int i = 0; i < 5; i++) {
+                insert.setInt(1, i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            assertEquals(3, select(connection, 3));
+        }
+
+        Map<String, SlowQueryLog.Fingerprint> top = slowQueryLog.top(10).stream()
+                .collect(Collectors.toMap(SlowQueryLog.Fingerprint::sql, Function.identity()));
+        assertEquals(Set.of("insert into video values (?...)", "select * from video where id < ?"), top.keySet());
+        assertEquals(5, top.get("insert into video values (?...)").rows());
+        assertEquals(1, top.get("select * from video where id < ?").executions());
+        assertEquals(3, top.get("select * from video where id < ?").rows());
+    }
+
+    @Test
+    void capture_ShouldKeepTheParametersOfTheStatements() throws Exception {
+        List<StatementCapture.Statement> captured;
+        try (Connection connection = dataSource.getConnection()) {
+            captured = StatementCapture.during(() -> select(connection, 7));
+            select(connection, 8);
+        }
+
+        assertEquals(List.of(new StatementCapture.Statement("select * from video where id < ?", List.of(7))), captured);
+    }
+}
@@ -0,0 +1,73 @@
+package aiss.videominer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceStoreTest {
+
+    private static TraceStore.FinishedSpan span(String trace, String id, String parent, String phase, long startMs, long endMs) {
+        Map<String, String> attributes = phase == null ? Map.of() : Map.of(Tracing.PHASE, phase);
+        return new TraceStore.FinishedSpan(trace, id, parent, id, startMs * 1_000_000, endMs * 1_000_000, attributes);
+    }
+
+    @Test
+    void add_ShouldAssembleTheTreeWhenTheRootFinishes() {
+        TraceStore store = new TraceStore(10);
+        store.add(span("t", "sql1", "controller", "sql", 2, 4));
+        store.add(span("t", "controller", "root", "controller", 1, 5));
+        store.add(span("t", "sql2", "lazy", "sql", 7, 9));
+        store.add(span("t", "lazy", "serialization", "lazy-load", 6, 10));
+        store.add(span("t", "serialization", "root", "serialization", 5, 11));
+        assertTrue(store.slowest(10).isEmpty());
+
+        store.add(span("t", "root", null, null, 0, 12));
+
+        TraceStore.Trace trace = store.slowest(10).get(0);
+        assertEquals(12.0, trace.durationMs());
+        assertEquals(Map.of("controller", 4.0, "sql", 4.0, "lazy-load", 4.0, "serialization", 6.0), trace.phases());
+        List<TraceStore.Span> phases = trace.root().children();
+        assertEquals(List.of("controller", "serialization"), phases.stream().map(TraceStore.Span::name).toList());
+        assertEquals("sql1", phases.get(0).children().get(0).name());
+        assertEquals("sql2", phases.get(1).children().get(0).children().get(0).name());
+        assertEquals(7.0, phases.get(1).children().get(0).children().get(0).offsetMs());
+        assertTrue(phases.get(0).attributes().isEmpty());
+    }
+
+    @Test
+    void add_ShouldShowTheOrphansUnderTheRoot() {
+        TraceStore store = new TraceStore(10);
+        store.add(span("t", "sql", "lost", "sql", 2, 3));
+        store.add(span("t", "nested", "sql", null, 2, 3));
+        store.add(span("t", "root", null, null, 0, 5));
+
+        TraceStore.Span root = store.slowest(1).get(0).root();
+
+        assertEquals(1, root.children().size());
+        assertEquals("nested", root.children().get(0).children().get(0).name());
+    }
+
+    @Test
+    void slowest_ShouldRankTheLastTraces() {
+        TraceStore store = new TraceStore(2);
+        store.add(span("a", "a", null, null, 0, 50));
+        store.add(span("b", "b", null, null, 0, 10));
+        store.add(span("c", "c", null, null, 0, 20));
+
+        assertEquals(List.of("c", "b"), store.slowest(10).stream().map(TraceStore.Trace::traceId).toList());
+        assertEquals(1, store.slowest(1).size());
+    }
+
+    @Test
+    void discard_ShouldDropThePendingSpans() {
+        TraceStore store = new TraceStore(10);
+        store.add(span("t", "sql", "task", "sql", 1, 2));
+        store.discard("t");
+        store.add(span("t", "root", null, null, 0, 5));
+
+        assertTrue(store.slowest(1).get(0).root().children().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package aiss.videominer.service;
+
+import aiss.videominer.exception.UnsupportedWindowException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingServiceTest {
+
+    private OwnershipIndex ownership;
+    private TrendingService trending;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        ownership = new OwnershipIndex();
+        trending = new TrendingService(new ChangeLog(10, ownership), ownership, new String[] { "1h", "1d" });
+    }
+
+    private void comment(String videoId, long timestamp) {
+        String commentId = "m" + (++seq);
+        ownership.commentInVideo(commentId, videoId);
+        trending.onChanges(List.of(new Change(seq, "comments", commentId, Change.Operation.CREATED, timestamp, null, null)));
+    }
+
+    @Test
+    void top_ShouldRankVideosByRecentComments() throws UnsupportedWindowException {
+        long now = System.currentTimeMillis();
+        comment("v1", now);
+        comment("v1", now);
+        comment("v2", now);
+        comment("v2", now - 2 * 3600_000L);
+        comment("v2", now - 2 * 3600_000L);
+
+        List<TrendingService.Trend> hour = trending.top("1h", 10);
+        List<TrendingService.Trend> day = trending.top("1d", 10);
+
+        assertEquals(List.of("v1", "v2"), hour.stream().map(TrendingService.Trend::videoId).toList());
+        assertEquals(1, hour.get(1).comments());
+        assertEquals(3, day.stream().filter(t -> t.videoId().equals("v2")).findFirst().orElseThrow().comments());
+    }
+
+    @Test
+    void top_ShouldReturnLargestScoresInOrder() throws UnsupportedWindowException {
+        long now = System.currentTimeMillis();
+        Random random = new Random(42);
+        int[] comments = new int[200];
+        for (int i = 0; i < 5000; i++) {
+            int video = random.nextInt(comments.length);
+            comments[video]++;
+            comment("v" + video, now);
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int video = 0; video < comments.length; video++) {
+            expected.add(comments[video]);
+        }
+        expected.sort((a, b) -> b - a);
+
+        List<TrendingService.Trend> top = trending.top("1h", 20);
+
+        assertEquals(20, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals((long) expected.get(i), top.get(i).comments());
+        }
+    }
+
+    @Test
+    void top_ShouldThrowExceptionWhenWindowNotSupported() {
+        assertThrows(UnsupportedWindowException.class, () -> trending.top("7d", 10));
+        assertThrows(UnsupportedWindowException.class, () -> trending.top("soon", 10));
+    }
+}
@@ -0,0 +1,83 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindBufferTest {
+
+    @Test
+    void add_ShouldKeepEntityReadableUntilFlushed() {
+        List<List<Caption>> batches = new ArrayList<>();
+        WriteBehindBuffer<Caption> buffer = new WriteBehindBuffer<>("captions", Caption::getId, batches::add, 10, 3);
+
+        buffer.add(new Caption("1", "Test Caption", "en"));
+
+        assertTrue(buffer.get("1").isPresent());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void add_ShouldFlushWhenBatchSizeReached() {
+        // Arrange
+        List<List<Caption>> batches = new ArrayList<>();
+        WriteBehindBuffer<Caption> buffer = new WriteBehindBuffer<>("captions", Caption::getId, batch -> batches.add(List.copyOf(batch)), 2, 3);
+
+        // Act
+        buffer.add(new Caption("1", "Test Caption", "en"));
+        buffer.add(new Caption("2", "Test Caption", "es"));
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.get("1").isPresent());
+    }
+
+    @Test
+    void flush_ShouldWriteOneByOneWhenBatchFails() {
+        // Arrange
+        List<String> written = new ArrayList<>();
+        WriteBehindBuffer<Caption> buffer = new WriteBehindBuffer<>("captions", Caption::getId, batch -> {
+            if (batch.stream().anyMatch(caption -> caption.getId().equals("bad"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            batch.forEach(caption -> written.add(caption.getId()));
+        }, 10, 3);
+        buffer.add(new Caption("1", "Test Caption", "en"));
+        buffer.add(new Caption("bad", "Test Caption", "en"));
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(List.of("1"), written);
+        assertEquals(1, buffer.size());
+        assertTrue(buffer.get("bad").isPresent());
+    }
+
+    @Test
+    void flush_ShouldMoveToDeadLettersAfterMaxAttempts() {
+        // Arrange
+        WriteBehindBuffer<Caption> buffer = new WriteBehindBuffer<>("captions", Caption::getId, batch -> {
+            throw new IllegalStateException("constraint violation");
+        }, 10, 2);
+        buffer.add(new Caption("bad", "Test Caption", "en"));
+
+        // Act
+        buffer.flush();
+        buffer.flush();
+
+        // Assert
+        assertEquals(0, buffer.size());
+        assertEquals(List.of("bad"), buffer.deadLetters().stream().map(Caption::getId).toList());
+
+        buffer.retryDeadLetters();
+        assertEquals(1, buffer.size());
+        assertTrue(buffer.deadLetters().isEmpty());
+    }
+}
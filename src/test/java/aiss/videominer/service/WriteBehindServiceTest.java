@@ -0,0 +1,70 @@
+package aiss.videominer.service;
+
+import aiss.videominer.model.Caption;
+import aiss.videominer.model.Comment;
+import aiss.videominer.model.User;
+import aiss.videominer.repository.CaptionRepository;
+import aiss.videominer.repository.CommentRepository;
+import aiss.videominer.support.PerformanceBudget;
+import aiss.videominer.support.PerformanceBudgetConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "videominer.write-behind.enabled=true",
+        "videominer.write-behind.flush-interval-ms=3600000",
+        "spring.jpa.show-sql=false"
+})
+@Import(PerformanceBudgetConfiguration.class)
+public class WriteBehindServiceTest {
+
+    @Autowired
+    private WriteBehindService writeBehind;
+
+    @Autowired
+    private CaptionRepository captionRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PerformanceBudget budget;
+
+    @Test
+    void flush_ShouldLookUpTheBatchInOneQuery() throws Throwable {
+        // Arrange: a first flush, so that one-time initialization is not counted
+        writeBehind.bufferCaption(new Caption("wb-warm-up", "Caption", "en"));
+        writeBehind.flush();
+        captionRepository.save(new Caption("wb-existing", "Old name", "en"));
+        IntStream.range(0, 5).forEach(i -> writeBehind.bufferCaption(new Caption("wb-new-" + i, "Caption", "en")));
+        writeBehind.bufferCaption(new Caption("wb-existing", "New name", "en"));
+
+        // Act & Assert: the existence query, the inserts as one batch, and the update of the existing row, which
+        // merge takes from the second-level cache
+        budget.assertBudget(3, 1 << 20, writeBehind::flush);
+        assertEquals(6, captionRepository.findAllById(
+                List.of("wb-new-0", "wb-new-1", "wb-new-2", "wb-new-3", "wb-new-4", "wb-existing")).size());
+        assertEquals("New name", captionRepository.findById("wb-existing").orElseThrow().getName());
+    }
+
+    @Test
+    void flush_ShouldGiveNewAuthorsAnId() {
+        // Arrange
+        writeBehind.bufferComment(new Comment("wb-comment", "Text", "2024-05-12", new User(7L, "user", "https://www.youtube.com/@user", null)));
+
+        // Act
+        writeBehind.flush();
+
+        // Assert
+        Comment comment = commentRepository.findById("wb-comment").orElseThrow();
+        assertNotNull(comment.getAuthor().getId());
+        assertTrue(writeBehind.deadComments().isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package aiss.videominer.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.Executable;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what an action costs on the current thread: the JDBC statements it executes (see
+ * {@link StatementCounter}) and the bytes it allocates. The entity loads and collection fetches of the Hibernate
+ * statistics are reported along, so that a failed budget shows where the statements come from.
+ */
+public class PerformanceBudget {
+
+    public record Usage(long statements, long allocatedBytes, long entityLoads, long collectionFetches) {
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Statistics statistics;
+
+    public PerformanceBudget(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public Usage measure(Executable action) throws Throwable {
+        long thread = Thread.currentThread().threadId();
+        long statements = StatementCounter.executed();
+        long entityLoads = statistics.getEntityLoadCount();
+        long collectionFetches = statistics.getCollectionFetchCount();
+        long allocated = THREADS.getThreadAllocatedBytes(thread);
+        action.execute();
+        return new Usage(StatementCounter.executed() - statements,
+                THREADS.getThreadAllocatedBytes(thread) - allocated,
+                statistics.getEntityLoadCount() - entityLoads,
+                statistics.getCollectionFetchCount() - collectionFetches);
+    }
+
+    /**
+     * Asserts that the action executes exactly the given number of statements and allocates at most the given
+     * number of bytes.
+     */
+    public Usage assertBudget(long statements, long maxAllocatedBytes, Executable action) throws Throwable {
+        Usage usage = measure(action);
+        assertEquals(statements, usage.statements(), () -> "Unexpected number of statements: " + usage);
+        assertTrue(usage.allocatedBytes() <= maxAllocatedBytes, () -> "Allocation budget exceeded: " + usage);
+        return usage;
+    }
+}
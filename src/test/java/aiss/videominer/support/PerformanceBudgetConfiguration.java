@@ -0,0 +1,23 @@
+package aiss.videominer.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Imported by the tests that assert {@link PerformanceBudget}s.
+ */
+@TestConfiguration
+public class PerformanceBudgetConfiguration {
+
+    // Static, so that the DataSource is wrapped however early it is created
+    @Bean
+    static StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    PerformanceBudget performanceBudget(EntityManagerFactory entityManagerFactory) {
+        return new PerformanceBudget(entityManagerFactory);
+    }
+}
@@ -0,0 +1,63 @@
+package aiss.videominer.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Wraps the application's DataSource in a proxy that counts the JDBC statements executed by each thread. A
+ * batch counts as one statement, since it is one round trip. MockMvc serves the request on the test thread, so
+ * the count of the test thread is the count of the request.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<long[]> EXECUTED = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long executed() {
+        return EXECUTED.get()[0];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(method, target, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement);
+            } else if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement);
+            } else if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement);
+            } else if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection);
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                EXECUTED.get()[0]++;
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}